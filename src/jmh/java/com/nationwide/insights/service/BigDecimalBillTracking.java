@@ -0,0 +1,124 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.Transactions;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.math.RoundingMode.CEILING;
+import static java.util.Collections.emptyList;
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * Bill tracking as it was before amounts moved to pence: every entry is kept as a {@link BigDecimal} and the
+ * baseline is folded with add and divide. Kept as the reference point for {@link BillTrackingBenchmark}.
+ */
+class BigDecimalBillTracking {
+    private static final BigDecimal TWO = BigDecimal.valueOf(2L);
+    private final IGenerateInsight cInsight;
+
+    BigDecimalBillTracking(IGenerateInsight cInsight) {
+        this.cInsight = cInsight;
+    }
+
+    List<Insight> billTrackingInsight(Map<String, List<Transactions>> transactionByVendor) {
+        List<History> histories = new ArrayList<>(transactionByVendor.size());
+        transactionByVendor.forEach((vendor, transactions) -> {
+            History history = new History(vendor);
+            transactions.forEach(transact -> history.add(transact.getDate(), transact.getAmount(), transact.getCategory()));
+            histories.add(history);
+        });
+        return histories.stream()
+                .sorted(comparing((History history) -> history.dates.get(history.latest)).reversed())
+                .map(this::generateThisRecentInsight)
+                .flatMap(Collection::stream)
+                .collect(toUnmodifiableList());
+    }
+
+    private List<Insight> generateThisRecentInsight(History history) {
+        return history.baseline()
+                .map(baseline -> {
+                    CustomerInsight recent = new CustomerInsight();
+                    recent.setAmount(history.amounts.get(history.latest));
+                    recent.setDate(history.dates.get(history.latest));
+                    recent.setCategory(history.latestCategory);
+                    recent.setVendor(history.vendor);
+                    CustomerInsight past = new CustomerInsight();
+                    past.setAmount(baseline);
+                    return cInsight.generateInsightFrom(recent, past).getInsights();
+                })
+                .orElse(emptyList());
+    }
+
+    private static class History {
+        private final String vendor;
+        private final List<LocalDate> dates = new ArrayList<>();
+        private final List<BigDecimal> amounts = new ArrayList<>();
+        private String latestCategory;
+        private int latest = -1;
+        private boolean dateOrdered = true;
+
+        History(String vendor) {
+            this.vendor = vendor;
+        }
+
+        void add(LocalDate date, BigDecimal amount, String category) {
+            int index = dates.size();
+            if (index > 0 && date.isBefore(dates.get(index - 1))) {
+                dateOrdered = false;
+            }
+            if (latest < 0 || date.isAfter(dates.get(latest))) {
+                latest = index;
+                latestCategory = category;
+            }
+            dates.add(date);
+            amounts.add(amount);
+        }
+
+        Optional<BigDecimal> baseline() {
+            BigDecimal baseline = null;
+            for (BigDecimal amount : history()) {
+                baseline = baseline == null ? amount : baseline.add(amount).divide(TWO, CEILING);
+            }
+            return Optional.ofNullable(baseline);
+        }
+
+        private List<BigDecimal> history() {
+            List<BigDecimal> history = new ArrayList<>(Math.max(0, dates.size() - 1));
+            if (dateOrdered) {
+                int end = dates.size();
+                while (end > 0) {
+                    int start = end - 1;
+                    LocalDate date = dates.get(start);
+                    while (start > 0 && dates.get(start - 1).equals(date)) {
+                        start--;
+                    }
+                    for (int i = start; i < end; i++) {
+                        if (i != latest) {
+                            history.add(amounts.get(i));
+                        }
+                    }
+                    end = start;
+                }
+            } else {
+                List<Integer> indices = new ArrayList<>(Math.max(0, dates.size() - 1));
+                for (int i = 0; i < dates.size(); i++) {
+                    if (i != latest) {
+                        indices.add(i);
+                    }
+                }
+                indices.sort(Comparator.<Integer, LocalDate>comparing(dates::get).reversed());
+                indices.forEach(i -> history.add(amounts.get(i)));
+            }
+            return history;
+        }
+    }
+}
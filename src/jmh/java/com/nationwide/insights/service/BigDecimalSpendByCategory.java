@@ -0,0 +1,36 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.Transactions;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.nationwide.insights.service.SpendByCategory.EXEMPT_FROM_SPENDING_CATEGORY;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * Spend by category as it was before amounts moved to pence: aggregate first, but each category total is a
+ * {@link BigDecimal} replaced on every add. Kept as the reference point for {@link SpendByCategoryBenchmark}.
+ */
+class BigDecimalSpendByCategory {
+
+    List<Insight> spendByCategoryInsight(List<Transactions> transactions) {
+        Map<String, BigDecimal> spendByCategory = new HashMap<>();
+        for (Transactions transact : transactions) {
+            spendByCategory.merge(transact.getCategory(), transact.getAmount(), BigDecimal::add);
+        }
+        return spendByCategory.entrySet().stream()
+                .filter(catEntry -> !catEntry.getKey().equalsIgnoreCase(EXEMPT_FROM_SPENDING_CATEGORY))
+                .map(catEntry -> {
+                    CustomerInsight insight = new CustomerInsight();
+                    insight.setCategory(catEntry.getKey());
+                    insight.setSpendByCategory(catEntry.getValue());
+                    return insight;
+                })
+                .flatMap(insight -> insight.getInsights().stream())
+                .collect(toUnmodifiableList());
+    }
+}
@@ -0,0 +1,55 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bill tracking over a customer spread across many vendors. Compare the pence path with the
+ * {@link BigDecimal} fold it replaced, on throughput and gc.alloc.rate.norm, and each {@link BillBaseline}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BillTrackingBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int transactions;
+
+    @Param({"HALVING", "MEAN"})
+    public BillBaseline baseline;
+
+    private Map<String, List<Transactions>> transactionByVendor;
+    private IBillTracking billTracking;
+    private BigDecimalBillTracking bigDecimalBaseline;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        transactionByVendor = SyntheticCustomer.byVendor(SyntheticCustomer.transactions(transactions));
+        billTracking = new BillTracking(new InsightGenerator(), baseline, 0);
+        bigDecimalBaseline = new BigDecimalBillTracking(new InsightGenerator());
+    }
+
+    @Benchmark
+    public List<Insight> billTrackingInsight() {
+        return billTracking.billTrackingInsight(transactionByVendor);
+    }
+
+    @Benchmark
+    public List<Insight> bigDecimalBaseline() {
+        return bigDecimalBaseline.billTrackingInsight(transactionByVendor);
+    }
+}
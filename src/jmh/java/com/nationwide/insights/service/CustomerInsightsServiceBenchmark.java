@@ -0,0 +1,77 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.nationwide.insights.service.SyntheticCustomer.CUSTOMER_ID;
+import static java.util.Arrays.asList;
+
+/**
+ * End-to-end cost of {@link CustomerInsightsService#customerInsightsById(Long)}: date window filtering,
+ * grouping, bill tracking and spend by category, over an in-memory repository. {@code COLUMNAR} measures requests
+ * answered from columns already held by the {@link TransactionColumnStore}. {@code generatorThreads} is the size of
+ * the generator executor, 0 running both producers on the benchmark thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CustomerInsightsServiceBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int transactions;
+
+    @Param({"TRANSACTIONS", "COLUMNAR"})
+    public InsightAggregation aggregation;
+
+    @Param({"0", "2"})
+    public int generatorThreads;
+
+    private ExecutorService generatorExecutor;
+    private CustomerInsightsService service;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        TransactionRepository repository = SyntheticCustomer.repositoryOf(SyntheticCustomer.transactions(transactions));
+        Clock clock = Clock.systemDefaultZone();
+        generatorExecutor = generatorThreads == 0 ? null : Executors.newFixedThreadPool(generatorThreads);
+        service = new CustomerInsightsService(
+                repository,
+                null,
+                new TransactionColumnStore(repository, Long.MAX_VALUE, new SimpleMeterRegistry(), clock),
+                asList(new BillTracking(new InsightGenerator()), new SpendByCategory()),
+                aggregation,
+                Runnable::run,
+                generatorExecutor == null ? Runnable::run : generatorExecutor,
+                new InsightMetrics(new SimpleMeterRegistry()),
+                clock);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (generatorExecutor != null) {
+            generatorExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<Insight> customerInsightsById() {
+        return service.customerInsightsById(CUSTOMER_ID);
+    }
+}
@@ -0,0 +1,44 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.Transactions;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.nationwide.insights.service.SpendByCategory.EXEMPT_FROM_SPENDING_CATEGORY;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * The original spend by category pipeline: groups every transaction, builds one {@link CustomerInsight}
+ * and message per transaction and removes the copies with distinct(). Kept as the reference point for
+ * {@link SpendByCategoryBenchmark}.
+ */
+class GroupingSpendByCategory {
+
+    List<Insight> spendByCategoryInsight(List<Transactions> transactions) {
+        return transactions.stream().collect(groupingBy(Transactions::getCategory)).entrySet().stream()
+                .filter(catEntry -> !catEntry.getKey().equalsIgnoreCase(EXEMPT_FROM_SPENDING_CATEGORY))
+                .map(catEntry -> {
+                    BigDecimal amount = catEntry.getValue().stream()
+                            .map(Transactions::getAmount)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    return catEntry.getValue().stream()
+                            .map(transact -> {
+                                CustomerInsight insight = new CustomerInsight();
+                                insight.setAmount(transact.getAmount());
+                                insight.setDate(transact.getDate());
+                                insight.setCategory(transact.getCategory());
+                                insight.setVendor(transact.getVendor());
+                                insight.setSpendByCategory(amount);
+                                return insight;
+                            })
+                            .flatMap(insight -> insight.getInsights().stream())
+                            .distinct()
+                            .collect(toList());
+                }).flatMap(insights -> insights.stream())
+                .collect(toUnmodifiableList());
+    }
+}
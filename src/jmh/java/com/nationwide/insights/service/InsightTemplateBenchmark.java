@@ -0,0 +1,42 @@
+package com.nationwide.insights.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static com.nationwide.insights.service.InsightType.BILL_TRACKING;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * One bill tracking message, rendered from the parsed template and with the String.format call it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InsightTemplateBenchmark {
+    private final String vendor = "Vodafone";
+    private final String category = "bill";
+    private final long amountInPence = 12345L;
+
+    @Benchmark
+    public String template() {
+        return InsightTemplate.of(BILL_TRACKING).render(vendor, category, amountInPence, CustomerInsight.MORE);
+    }
+
+    @Benchmark
+    public String stringFormatBaseline() {
+        return format("Your latest %s %s is %s%.0f %s than previous months",
+                vendor,
+                category,
+                new String("£".getBytes(UTF_8), UTF_8),
+                BigDecimal.valueOf(amountInPence, 2).abs(),
+                CustomerInsight.MORE);
+    }
+}
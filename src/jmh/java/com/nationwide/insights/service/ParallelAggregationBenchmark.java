@@ -0,0 +1,86 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static java.util.Comparator.comparing;
+
+/**
+ * Bill tracking and spend by category over one window, on the calling thread or split across a fork-join pool
+ * of {@code parallelism} threads, {@code 0} being one per processor. The smallest window at which
+ * {@code parallel=true} takes less time than {@code parallel=false} is the crossover to set
+ * {@code insights.parallel.threshold-rows} to for the machine it runs on. Both producers read the whole window
+ * here, where in the service spend by category only reads this month.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelAggregationBenchmark {
+
+    @Param({"1000", "10000", "50000", "100000", "250000", "1000000"})
+    public int transactions;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    @Param({"TRANSACTIONS", "COLUMNAR"})
+    public InsightAggregation aggregation;
+
+    @Param({"0"})
+    public int parallelism;
+
+    private List<Transactions> window;
+    private TransactionColumns columns;
+    private ForkJoinPool pool;
+    private BillTracking billTracking;
+    private SpendByCategory spendByCategory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        window = new ArrayList<>(SyntheticCustomer.transactions(transactions));
+        window.sort(comparing(Transactions::getDate));
+        TransactionColumns.Builder builder = new TransactionColumns.Builder();
+        window.forEach(transact -> builder.add(transact.getDate(), transact.getAmount(), transact.getVendor(),
+                transact.getCategory()));
+        columns = builder.build();
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        ParallelAggregation aggregation = new ParallelAggregation(parallel, 0, pool);
+        billTracking = new BillTracking(new InsightGenerator(), BillBaseline.HALVING, 0, aggregation);
+        spendByCategory = new SpendByCategory(aggregation);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Insight> insights() {
+        List<Insight> insights = new ArrayList<>();
+        BiConsumer<InsightType, Insight> sink = (type, insight) -> insights.add(insight);
+        if (aggregation == InsightAggregation.COLUMNAR) {
+            billTracking.fromColumns(columns, 0, columns.size(), sink);
+            spendByCategory.fromColumns(columns, 0, columns.size(), sink);
+        } else {
+            billTracking.fromTransactions(window, sink);
+            spendByCategory.fromTransactions(window, sink);
+        }
+        return insights;
+    }
+}
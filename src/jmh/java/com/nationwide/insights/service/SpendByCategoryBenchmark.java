@@ -0,0 +1,59 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spend by category over a customer whose transactions all fall into a dozen categories. Compare
+ * gc.alloc.rate.norm across the transaction counts: the grouping baseline allocates an insight and a
+ * message per transaction, the aggregate-first pipeline one per category. The {@link java.math.BigDecimal}
+ * baseline aggregates first too but allocates a new total per transaction, where the pence path adds in place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SpendByCategoryBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int transactions;
+
+    private List<Transactions> history;
+    private ISpendByCategory spendByCategory;
+    private GroupingSpendByCategory groupingBaseline;
+    private BigDecimalSpendByCategory bigDecimalBaseline;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        history = SyntheticCustomer.transactions(transactions);
+        spendByCategory = new SpendByCategory();
+        groupingBaseline = new GroupingSpendByCategory();
+        bigDecimalBaseline = new BigDecimalSpendByCategory();
+    }
+
+    @Benchmark
+    public List<Insight> spendByCategoryInsight() {
+        return spendByCategory.spendByCategoryInsight(history);
+    }
+
+    @Benchmark
+    public List<Insight> groupingBaseline() {
+        return groupingBaseline.spendByCategoryInsight(history);
+    }
+
+    @Benchmark
+    public List<Insight> bigDecimalBaseline() {
+        return bigDecimalBaseline.spendByCategoryInsight(history);
+    }
+}
@@ -0,0 +1,109 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static java.math.BigDecimal.valueOf;
+import static java.util.Collections.emptyList;
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.groupingBy;
+
+/**
+ * Deterministic synthetic transaction history for the benchmarks: a single customer whose
+ * transactions are spread across many vendors, a dozen categories and two years of dates.
+ */
+public final class SyntheticCustomer {
+    public static final long CUSTOMER_ID = 1L;
+    private static final String[] CATEGORIES = {
+            "bill", "restaurants", "cafes", "groceries", "transport", "entertainment",
+            "travel", "shopping", "health", "utilities", "subscriptions", "charity"};
+    private static final int MAX_VENDORS = 500;
+    private static final int DAYS_OF_HISTORY = 730;
+    private static final int AMOUNTS = 1024;
+    private static final long SEED = 42L;
+
+    private SyntheticCustomer() {
+    }
+
+    public static List<Transactions> transactions(int count) {
+        Random random = new Random(SEED);
+        Customer customer = new Customer(CUSTOMER_ID, "benchmark");
+
+        int noOfVendors = Math.max(1, Math.min(MAX_VENDORS, count / 4));
+        String[] vendors = new String[noOfVendors];
+        for (int i = 0; i < noOfVendors; i++) {
+            vendors[i] = "vendor-" + i;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate[] dates = new LocalDate[DAYS_OF_HISTORY];
+        for (int i = 0; i < DAYS_OF_HISTORY; i++) {
+            dates[i] = today.minusDays(i);
+        }
+        BigDecimal[] amounts = new BigDecimal[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = valueOf(100L + random.nextInt(20000), 2);
+        }
+
+        List<Transactions> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int vendor = random.nextInt(noOfVendors);
+            transactions.add(new Transactions((long) i + 1,
+                    amounts[random.nextInt(AMOUNTS)],
+                    dates[random.nextInt(DAYS_OF_HISTORY)],
+                    "synthetic",
+                    CATEGORIES[vendor % CATEGORIES.length],
+                    vendors[vendor],
+                    customer));
+        }
+        return transactions;
+    }
+
+    public static Map<String, List<Transactions>> byVendor(List<Transactions> transactions) {
+        return transactions.stream().collect(groupingBy(Transactions::getVendor));
+    }
+
+    /**
+     * A {@link TransactionRepository} that answers the finder queries from memory, so the
+     * service benchmark measures the insight pipeline rather than the database.
+     */
+    public static TransactionRepository repositoryOf(List<Transactions> transactions) {
+        return (TransactionRepository) Proxy.newProxyInstance(
+                TransactionRepository.class.getClassLoader(),
+                new Class<?>[]{TransactionRepository.class},
+                (proxy, method, args) -> {
+                    boolean isCustomer = args != null && Long.valueOf(CUSTOMER_ID).equals(args[0]);
+                    switch (method.getName()) {
+                        case "findAllByCustomerId":
+                            return isCustomer ? transactions : emptyList();
+                        case "existsByCustomerId":
+                            return isCustomer;
+                        case "streamByCustomerIdAndDateRange":
+                            return window(transactions, isCustomer, (LocalDate) args[1], (LocalDate) args[2]);
+                        case "streamColumnsByCustomerIdAndDateRange":
+                            return window(transactions, isCustomer, (LocalDate) args[1], (LocalDate) args[2])
+                                    .map(transact -> new Object[]{transact.getDate(), transact.getAmount(),
+                                            transact.getVendor(), transact.getCategory()});
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Stream<Transactions> window(List<Transactions> transactions, boolean isCustomer,
+                                               LocalDate from, LocalDate to) {
+        return transactions.stream()
+                .filter(transact -> isCustomer)
+                .filter(transact -> !transact.getDate().isBefore(from) && transact.getDate().isBefore(to))
+                .sorted(comparing(Transactions::getDate));
+    }
+}
@@ -0,0 +1,87 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.InsightsApplication;
+import com.nationwide.insights.domain.transactions.NewTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second written by {@link TransactionIngestService} into H2 at different JDBC batch sizes. Each
+ * invocation ingests {@value #ROWS} rows spread over a year, 40 vendors and two categories for one customer,
+ * so the score is rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionIngestBenchmark {
+    private static final long CUSTOMER_ID = 100L;
+    private static final int ROWS = 10_000;
+
+    @Param({"1", "50", "500", "1000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionIngestService service;
+    private JdbcTemplate jdbc;
+    private List<NewTransaction> transactions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(InsightsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:ingest;DB_CLOSE_DELAY=-1",
+                        "--insights.ingest.batch-size=" + batchSize,
+                        "--logging.level.root=WARN");
+        service = context.getBean(TransactionIngestService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO CUSTOMER (ID, C_NAME) VALUES (?, ?)", CUSTOMER_ID, "benchmark");
+
+        LocalDate today = LocalDate.now();
+        transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(new NewTransaction(CUSTOMER_ID,
+                    BigDecimal.valueOf(100L + i % 1000, 2),
+                    today.minusDays(i % 365),
+                    "synthetic",
+                    i % 12 == 0 ? "bill" : "restaurants",
+                    "vendor-" + (i % 40)));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        jdbc.update("DELETE FROM CUSTOMER_MONTHLY_ROLLUP");
+        jdbc.update("DELETE FROM TRANSACTIONS");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int ingest() {
+        return service.ingest(transactions);
+    }
+}
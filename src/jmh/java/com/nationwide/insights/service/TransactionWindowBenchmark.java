@@ -0,0 +1,150 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.InsightsApplication;
+import com.nationwide.insights.domain.dimension.Dimensions;
+import com.nationwide.insights.domain.transactions.MonthlyRollupRepository;
+import com.nationwide.insights.domain.transactions.MonthlySpend;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.nationwide.insights.domain.transactions.MonthlyRollup.yearMonthOf;
+import static com.nationwide.insights.service.CustomerInsightsService.LAST_12_MONTHS;
+
+/**
+ * Rows read from H2 per insights request, for customers with 1 and 10 years of history: the unbounded
+ * findAllByCustomerId against the date-bounded stream the service uses, and the monthly rollups. Rows per
+ * request is {@code rows / requests} from the aux counters; the bounded stream stays flat as history grows,
+ * and the rollups stay at no more than 13 rows per vendor and category.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionWindowBenchmark {
+    private static final long CUSTOMER_ID = 100L;
+    private static final int TRANSACTIONS_PER_MONTH = 200;
+
+    @Param({"1", "10"})
+    public int yearsOfHistory;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository repository;
+    private MonthlyRollupRepository rollupRepository;
+    private TransactionTemplate readOnly;
+    private LocalDate from;
+    private LocalDate to;
+    private int fromYearMonth;
+    private int toYearMonth;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RowsRead {
+        public long rows;
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+            requests = 0;
+        }
+
+        void read(long count) {
+            rows += count;
+            requests++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(InsightsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN");
+        repository = context.getBean(TransactionRepository.class);
+        rollupRepository = context.getBean(MonthlyRollupRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        LocalDate today = LocalDate.now();
+        insertHistory(context.getBean(JdbcTemplate.class), context.getBean(Dimensions.class), today);
+        context.getBean(MonthlyRollupService.class).rebuild();
+        from = CustomerInsightsService.windowStart(LAST_12_MONTHS, today);
+        to = CustomerInsightsService.windowEnd(today);
+        fromYearMonth = yearMonthOf(today.minusMonths(LAST_12_MONTHS));
+        toYearMonth = yearMonthOf(today);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int findAllByCustomerId(RowsRead rowsRead) {
+        List<Transactions> transactions = readOnly.execute(status -> repository.findAllByCustomerId(CUSTOMER_ID));
+        rowsRead.read(transactions.size());
+        return transactions.size();
+    }
+
+    @Benchmark
+    public long streamByCustomerIdAndDateRange(RowsRead rowsRead) {
+        long rows = readOnly.execute(status -> {
+            try (Stream<Transactions> transactions = repository.streamByCustomerIdAndDateRange(CUSTOMER_ID, from, to)) {
+                return transactions.count();
+            }
+        });
+        rowsRead.read(rows);
+        return rows;
+    }
+
+    @Benchmark
+    public int monthlyRollup(RowsRead rowsRead) {
+        List<MonthlySpend> monthlySpend = readOnly.execute(status ->
+                rollupRepository.findMonthlySpendByCustomerId(CUSTOMER_ID, fromYearMonth, toYearMonth));
+        rowsRead.read(monthlySpend.size());
+        return monthlySpend.size();
+    }
+
+    private void insertHistory(JdbcTemplate jdbc, Dimensions dimensions, LocalDate today) {
+        jdbc.update("INSERT INTO CUSTOMER (ID, C_NAME) VALUES (?, ?)", CUSTOMER_ID, "benchmark");
+        List<Object[]> rows = new ArrayList<>();
+        for (int month = 0; month < yearsOfHistory * 12; month++) {
+            for (int i = 0; i < TRANSACTIONS_PER_MONTH; i++) {
+                rows.add(new Object[]{
+                        BigDecimal.valueOf(100L + i, 2),
+                        Date.valueOf(today.minusMonths(month).withDayOfMonth(1 + i % 28)),
+                        "synthetic",
+                        dimensions.categories().idOf(i % 12 == 0 ? "bill" : "restaurants"),
+                        dimensions.vendors().idOf("vendor-" + (i % 40)),
+                        CUSTOMER_ID});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO TRANSACTIONS (T_AMOUNT, T_DATE, DESCRIPTION, CATEGORY_ID, VENDOR_ID, CUSTOMER_ID) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,19 @@
+package com.nationwide.insights;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class CustomerInsightsClockConfig {
+
+    /**
+     * Where "today" comes from when a request doesn't give an as-of date, and when cached insights and columns
+     * expire. Replace the bean to pin the date.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,59 @@
+package com.nationwide.insights;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@Configuration
+public class CustomerInsightsExecutorConfig {
+
+    /**
+     * Computes the insights of a batch request, one task per customer. The queue is bounded, and once it is full
+     * the requesting thread computes the overflow itself rather than queueing without limit.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService insightsBatchExecutor(@Value("${insights.batch.threads:4}") int threads,
+                                                 @Value("${insights.batch.queue-capacity:1000}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("insights-batch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Runs the insight producers of one request alongside each other, the first on the request thread and the
+     * rest here. Nothing is queued: a producer finding every thread busy runs on the request thread as it is
+     * handed over, so a busy service works out each request as it would with no threads rather than making it
+     * wait. With no threads every producer runs on the request thread. The pool is shut down with the context.
+     */
+    @Bean
+    public Executor insightsGeneratorExecutor(@Value("${insights.generators.threads:2}") int threads) {
+        if (threads == 0) {
+            return Runnable::run;
+        }
+        return new ThreadPoolExecutor(threads, threads, 0L, MILLISECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("insights-generator-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Splits one very large window between its threads, by vendor for bill tracking and by category for spend by
+     * category. Kept apart from the common pool, which other parallel streams in the process share. Its threads
+     * start on first use, so a service that never splits a window never starts one.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool insightsAggregationPool(@Value("${insights.parallel.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
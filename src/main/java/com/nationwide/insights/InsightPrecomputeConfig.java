@@ -0,0 +1,24 @@
+package com.nationwide.insights;
+
+import com.nationwide.insights.service.InsightPrecomputeService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Precomputes every customer's insights as of today into the INSIGHTS table on start up, for a nightly job, e.g.
+ * {@code ./gradlew bootRun --args='--spring.profiles.active=precompute-insights --spring.main.web-application-type=none'}
+ */
+@Configuration
+@Profile("precompute-insights")
+public class InsightPrecomputeConfig {
+
+    @Bean
+    public CommandLineRunner precomputeInsights(InsightPrecomputeService precomputeService, Clock clock) {
+        return (args) -> precomputeService.precomputeAll(LocalDate.now(clock));
+    }
+}
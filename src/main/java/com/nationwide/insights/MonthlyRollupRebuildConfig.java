@@ -0,0 +1,21 @@
+package com.nationwide.insights;
+
+import com.nationwide.insights.service.MonthlyRollupService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Rebuilds CUSTOMER_MONTHLY_ROLLUP from TRANSACTIONS on start up, e.g.
+ * {@code ./gradlew bootRun --args='--spring.profiles.active=rebuild-rollups --spring.main.web-application-type=none'}
+ */
+@Configuration
+@Profile("rebuild-rollups")
+public class MonthlyRollupRebuildConfig {
+
+    @Bean
+    public CommandLineRunner rebuildRollups(MonthlyRollupService rollupService) {
+        return (args) -> rollupService.rebuild();
+    }
+}
@@ -1,20 +1,58 @@
 package com.nationwide.insights.api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nationwide.insights.api.exception.TransactionNotFoundException;
+import com.nationwide.insights.domain.CustomerInsights;
 import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.TransactionsVersion;
 import com.nationwide.insights.service.CustomerInsightsService;
+import com.nationwide.insights.service.InsightCache;
+import com.nationwide.insights.service.InsightCoalescer;
+import com.nationwide.insights.service.InsightExecutor;
+import com.nationwide.insights.service.InsightMetrics;
+import com.nationwide.insights.service.InsightType;
+import com.nationwide.insights.service.PrecomputedInsightStore;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
-import static java.lang.String.format;
+import static com.nationwide.insights.service.CustomerInsightsService.ALL_INSIGHT_TYPES;
+import static com.nationwide.insights.service.InsightMetrics.Stage.SERIALISATION;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.springframework.http.ResponseEntity.ok;
 
@@ -23,19 +61,188 @@ import static org.springframework.http.ResponseEntity.ok;
 @RequestMapping(value = "/api/v1/customer/insights", produces = "application/json;charset=UTF-8", consumes = "application/json;charset=UTF-8")
 public class CustomerInsightsController {
     private static final Logger LOG = getLogger(CustomerInsightsController.class.getCanonicalName());
+    public static final int MAX_BATCH_SIZE = 1000;
+    private static final String APPLICATION_JSON_UTF8 = "application/json;charset=UTF-8";
     private final CustomerInsightsService service;
+    private final InsightCache cache;
+    private final InsightCoalescer coalescer;
+    private final PrecomputedInsightStore precomputed;
+    private final ObjectMapper objectMapper;
+    private final InsightExecutor executor;
+    private final InsightMetrics metrics;
+    private final Clock clock;
+    private final boolean streaming;
+    private final boolean async;
 
     @Autowired
-    public CustomerInsightsController(CustomerInsightsService service) {
+    public CustomerInsightsController(CustomerInsightsService service, InsightCache cache,
+                                      InsightCoalescer coalescer, PrecomputedInsightStore precomputed,
+                                      ObjectMapper objectMapper,
+                                      InsightExecutor executor, InsightMetrics metrics, Clock clock,
+                                      @Value("${insights.response.streaming:false}") boolean streaming,
+                                      @Value("${insights.async.enabled:false}") boolean async) {
         this.service = service;
+        this.cache = cache;
+        this.coalescer = coalescer;
+        this.precomputed = precomputed;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.metrics = metrics;
+        this.clock = clock;
+        this.streaming = streaming;
+        this.async = async;
     }
 
+    /**
+     * Writes the customer's insights as a JSON array, as of today or of the {@code asOf} date given, with an ETag.
+     * Only insights of the {@code types} given are worked out, or all of them if none are.
+     * A request whose {@code If-None-Match} holds the current ETag gets 304 Not Modified without any insight being
+     * worked out. In async mode the work runs on the {@link InsightExecutor} and the servlet thread is released
+     * straight away; a full queue is rejected with 503. The insights are then handed back for Spring to write once
+     * async processing has started, or when streaming, sent through a {@link ResponseBodyEmitter} as they are
+     * worked out. Otherwise the request thread does the work and writes the insights itself, and nothing is
+     * returned.
+     */
     @GetMapping("{id}")
-    public ResponseEntity<List<Insight>> customerInsightsById(@PathVariable("id")
-                                                              @Positive(message = "Customer id must be greater than 0") Long id) {
-        LOG.info(format("preparing to return customer insight(s) by id: %s", id));
-        List<Insight> insights = service.customerInsightsById(id);
-        LOG.info(format("insights retrieved. insights: %s", insights));
+    public CompletableFuture<?> customerInsightsById(@PathVariable("id")
+                                                    @Positive(message = "Customer id must be greater than 0") Long id,
+                                                    @RequestParam(value = "asOf", required = false)
+                                                    @DateTimeFormat(iso = DATE) LocalDate asOf,
+                                                    @RequestParam(value = "types", required = false)
+                                                    Set<InsightType> types,
+                                                    HttpServletRequest request,
+                                                    HttpServletResponse response) throws IOException {
+        LOG.info("preparing to return customer insight(s) by id: {}, as of: {}, types: {}", id, asOf, types);
+        LocalDate day = asOf == null ? LocalDate.now(clock) : asOf;
+        Set<InsightType> selected = types == null || types.isEmpty() ? ALL_INSIGHT_TYPES : EnumSet.copyOf(types);
+        boolean cacheable = asOf == null && selected.containsAll(ALL_INSIGHT_TYPES);
+        TransactionsVersion version = service.transactionsVersion(id);
+        Optional<String> etag = service.insightsETag(version, day, selected);
+        if (etag.isPresent() && new ServletWebRequest(request, response).checkNotModified(etag.get())) {
+            metrics.notModified();
+            LOG.debug("insights for customer {} not modified", id);
+            return null;
+        }
+        if (async && streaming) {
+            if (etag.isEmpty()) {
+                metrics.transactionNotFound();
+                throw new TransactionNotFoundException(id);
+            }
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+            executor.execute(() -> sendInsights(id, day, selected, emitter));
+            response.setContentType(APPLICATION_JSON_UTF8);
+            return completedFuture(emitter);
+        }
+        if (async) {
+            return supplyAsync(() -> insights(id, day, selected, cacheable, version), executor);
+        }
+        writeInsights(id, day, selected, cacheable, version, response);
+        return null;
+    }
+
+    /**
+     * When streaming, each insight is written as bill tracking and spend by category produce it, bypassing the
+     * cache; otherwise the {@link #insights} are written. The opening bracket is only buffered, so a customer
+     * without transactions still gets a 404.
+     */
+    private void writeInsights(Long id, LocalDate asOf, Set<InsightType> types, boolean cacheable,
+                               TransactionsVersion version, HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_JSON_UTF8);
+        JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        json.writeStartArray();
+        int[] written = new int[1];
+        long[] serialisingNanos = new long[1];
+        Consumer<Insight> writer = insight -> {
+            try {
+                long start = System.nanoTime();
+                json.writeObject(insight);
+                serialisingNanos[0] += System.nanoTime() - start;
+                written[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            if (streaming) {
+                service.customerInsightsById(id, asOf, types, writer);
+            } else {
+                insights(id, asOf, types, cacheable, version).forEach(writer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        long start = System.nanoTime();
+        json.writeEndArray();
+        json.close();
+        metrics.recordNanos(SERIALISATION, serialisingNanos[0] + System.nanoTime() - start);
+        LOG.debug("{} insights written for customer {}", written[0], id);
+    }
+
+    /**
+     * The cached insights, loaded from the precomputed INSIGHTS table when they are current there. Only today's
+     * insights of every type are cached, so insights as of a given date or of some types only are worked out, once
+     * for all the concurrent requests asking for the same ones. Either way they include every transaction the
+     * {@code version} the ETag was made from counts.
+     */
+    private List<Insight> insights(Long id, LocalDate asOf, Set<InsightType> types, boolean cacheable,
+                                   TransactionsVersion version) {
+        if (cacheable) {
+            return cache.get(id, asOf, version, key -> precomputed.find(key, asOf)
+                    .orElseGet(() -> service.customerInsightsById(key, asOf)));
+        }
+        return coalescer.get(id, asOf, types, version, () -> service.customerInsightsById(id, asOf, types));
+    }
+
+    /**
+     * Sends each insight through the emitter as bill tracking and spend by category produce it, with the brackets
+     * and commas of a JSON array between them; Spring writes them to the response once async processing has
+     * started. A failure ends the response with the error, which can only be reported while nothing has been
+     * written, so a customer without transactions is turned away with a 404 before the emitter is returned.
+     */
+    private void sendInsights(Long id, LocalDate asOf, Set<InsightType> types, ResponseBodyEmitter emitter) {
+        int[] written = new int[1];
+        long[] serialisingNanos = new long[1];
+        try {
+            service.customerInsightsById(id, asOf, types, insight -> {
+                long start = System.nanoTime();
+                send(emitter, written[0] == 0 ? "[" : ",");
+                send(emitter, insight);
+                serialisingNanos[0] += System.nanoTime() - start;
+                written[0]++;
+            });
+            long start = System.nanoTime();
+            send(emitter, written[0] == 0 ? "[]" : "]");
+            emitter.complete();
+            metrics.recordNanos(SERIALISATION, serialisingNanos[0] + System.nanoTime() - start);
+            LOG.debug("{} insights sent for customer {}", written[0], id);
+        } catch (UncheckedIOException e) {
+            // the container reports a failed write itself
+            LOG.debug("insights for customer {} not sent: {}", id, e.getMessage());
+        } catch (RuntimeException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static void send(ResponseBodyEmitter emitter, Object json) {
+        try {
+            emitter.send(json, APPLICATION_JSON);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PostMapping("batch")
+    public ResponseEntity<Map<Long, CustomerInsights>> customerInsightsByIds(
+            @RequestBody
+            @NotEmpty(message = "Customer ids must not be empty")
+            @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " customer ids per batch")
+                    List<@NotNull @Positive(message = "Customer id must be greater than 0") Long> ids,
+            @RequestParam(value = "asOf", required = false) @DateTimeFormat(iso = DATE) LocalDate asOf) {
+        LOG.info("preparing to return customer insight(s) for {} ids, as of: {}", ids.size(), asOf);
+        Map<Long, CustomerInsights> insights = asOf == null
+                ? service.customerInsightsByIds(ids)
+                : service.customerInsightsByIds(ids, asOf);
+        LOG.info("insights retrieved for {} customers", insights.size());
         return ok(insights);
     }
 }
@@ -0,0 +1,50 @@
+package com.nationwide.insights.api.controller;
+
+import com.nationwide.insights.domain.transactions.IngestedTransactions;
+import com.nationwide.insights.domain.transactions.NewTransaction;
+import com.nationwide.insights.service.TransactionIngestService;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.ResponseEntity.status;
+
+@Validated
+@RestController
+@RequestMapping(value = "/api/v1/customer/transactions", produces = "application/json;charset=UTF-8", consumes = "application/json;charset=UTF-8")
+public class TransactionsController {
+    private static final Logger LOG = getLogger(TransactionsController.class.getCanonicalName());
+    public static final int MAX_INGEST_SIZE = 10_000;
+    private final TransactionIngestService service;
+
+    @Autowired
+    public TransactionsController(TransactionIngestService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public ResponseEntity<IngestedTransactions> ingestTransactions(
+            @RequestBody
+            @NotEmpty(message = "Transactions must not be empty")
+            @Size(max = MAX_INGEST_SIZE, message = "At most " + MAX_INGEST_SIZE + " transactions per request")
+                    List<@NotNull @Valid NewTransaction> transactions) {
+        LOG.info(format("preparing to ingest %d transactions", transactions.size()));
+        int count = service.ingest(transactions);
+        LOG.info(format("ingested %d transactions", count));
+        return status(CREATED).body(new IngestedTransactions(count));
+    }
+}
@@ -0,0 +1,9 @@
+package com.nationwide.insights.api.exception;
+
+import static java.lang.String.format;
+
+public class CustomerNotFoundException extends RuntimeException {
+    public CustomerNotFoundException(Long id) {
+        super(format("Customer with id %d does not exist", id));
+    }
+}
@@ -13,12 +13,14 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 import javax.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
 import static java.lang.String.format;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @ControllerAdvice
 public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
@@ -50,6 +52,19 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         return new ResponseEntity<>(message, getHttpHeaders(), NOT_FOUND);
     }
 
+    @ExceptionHandler(CustomerNotFoundException.class)
+    public ResponseEntity<Object> customerNotFoundException(
+            CustomerNotFoundException ex, WebRequest request) {
+        ErrorMessage message = new ErrorMessage(
+                NOT_FOUND.value(),
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false));
+        LOG.debug(format("exception: %s", ex.getLocalizedMessage()));
+        LOG.debug(format("request: %s", request));
+        return new ResponseEntity<>(message, getHttpHeaders(), NOT_FOUND);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<Object> constraintViolationExceptionHandler(
             ConstraintViolationException ex, WebRequest request) {
@@ -63,6 +78,21 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         return new ResponseEntity<>(message, getHttpHeaders(), BAD_REQUEST);
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> rejectedExecutionExceptionHandler(
+            RejectedExecutionException ex, WebRequest request) {
+        ErrorMessage message = new ErrorMessage(
+                SERVICE_UNAVAILABLE.value(),
+                LocalDateTime.now(),
+                "Too many insight requests in progress, try again shortly",
+                request.getDescription(false));
+        LOG.debug(format("exception: %s", ex.getLocalizedMessage()));
+        LOG.debug(format("request: %s", request));
+        HttpHeaders headers = getHttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(message, headers, SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> globalExceptionHandler(Exception ex, WebRequest request) {
         ErrorMessage message = new ErrorMessage(
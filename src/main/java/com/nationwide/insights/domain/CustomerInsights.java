@@ -0,0 +1,67 @@
+package com.nationwide.insights.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+/**
+ * One customer's entry in a batch response: either their insights, or the reason there are none.
+ */
+@JsonInclude(NON_NULL)
+public class CustomerInsights {
+    @JsonProperty
+    private int statusCode;
+    @JsonProperty
+    private List<Insight> insights;
+    @JsonProperty
+    private String message;
+
+    public CustomerInsights() {
+    }
+
+    public CustomerInsights(int statusCode, List<Insight> insights, String message) {
+        this.statusCode = statusCode;
+        this.insights = insights;
+        this.message = message;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public List<Insight> getInsights() {
+        return insights;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomerInsights)) return false;
+        CustomerInsights that = (CustomerInsights) o;
+        return statusCode == that.statusCode &&
+                Objects.equals(insights, that.insights) &&
+                Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statusCode, insights, message);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "statusCode=" + statusCode +
+                ", insights=" + insights +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -4,13 +4,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.nationwide.insights.domain.transactions.Transactions;
 
 import javax.persistence.CascadeType;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import java.util.ArrayList;
@@ -21,16 +23,20 @@ import java.util.Objects;
 @Table(name = "CUSTOMER")
 public class Customer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CUSTOMER_SEQ")
+    @GenericGenerator(name = "CUSTOMER_SEQ", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "CUSTOMER_SEQ"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")})
     @Column(nullable = false)
     private Long id;
 
     @Column(name = "C_NAME", nullable = false)
     private String name;
 
-    @OneToMany(fetch = FetchType.EAGER,
+    @OneToMany(mappedBy = "customer",
+            fetch = FetchType.LAZY,
             cascade = CascadeType.MERGE)
-    @JoinColumn(name = "id")
     @JsonIgnore
     private List<Transactions> transactions = new ArrayList<>();
 
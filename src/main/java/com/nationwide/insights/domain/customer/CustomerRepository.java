@@ -1,8 +1,32 @@
 package com.nationwide.insights.domain.customer;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import static javax.persistence.LockModeType.PESSIMISTIC_WRITE;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    /**
+     * The next page of customer ids after {@code after}, in id order, read from the primary key index without
+     * an offset, so every page costs the same however far into the table it is.
+     */
+    @Query("select c.id from Customer c where c.id > :after order by c.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable page);
+
+    /**
+     * The given customers that exist, locked until the transaction ends and in id order, so two transactions
+     * locking some of the same customers wait for each other rather than deadlock.
+     */
+    @Lock(PESSIMISTIC_WRITE)
+    @Query("select c from Customer c where c.id in :ids order by c.id")
+    List<Customer> lockAllById(@Param("ids") Collection<Long> ids);
 }
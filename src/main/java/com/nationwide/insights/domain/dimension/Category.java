@@ -0,0 +1,66 @@
+package com.nationwide.insights.domain.dimension;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.Objects;
+
+/**
+ * A category name and the int key transactions and rollups hold instead of it. Rows are only ever added, by
+ * {@link Dimensions}, the first time a name is written.
+ */
+@Entity
+@Immutable
+@Table(name = "CATEGORY")
+public class Category {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CATEGORY_SEQ")
+    @GenericGenerator(name = "CATEGORY_SEQ", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "CATEGORY_SEQ"),
+            @Parameter(name = "increment_size", value = "1")})
+    @Column(nullable = false)
+    private Integer id;
+
+    @Column(name = "C_NAME", nullable = false, unique = true, length = 250)
+    private String name;
+
+    public Category() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Category)) return false;
+        Category that = (Category) o;
+        return Objects.equals(getId(), that.getId()) &&
+                Objects.equals(getName(), that.getName());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getId(), getName());
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
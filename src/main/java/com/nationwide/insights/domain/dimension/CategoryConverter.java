@@ -0,0 +1,29 @@
+package com.nationwide.insights.domain.dimension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Writes a category name as its key in CATEGORY and reads the key back as the name.
+ */
+@Converter
+public class CategoryConverter implements AttributeConverter<String, Integer> {
+    private final Dimensions dimensions;
+
+    @Autowired
+    public CategoryConverter(Dimensions dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String category) {
+        return category == null ? null : dimensions.categories().idOf(category);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : dimensions.categories().nameOf(id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.nationwide.insights.domain.dimension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The {@link NameDictionary} of each dimension table, VENDOR and CATEGORY, shared by the converters that let
+ * transactions and rollups hold int keys in place of the names. The transaction manager is looked up on first use,
+ * since the converters are built with the entity manager factory it depends on.
+ */
+@Component
+@ManagedResource(objectName = "com.nationwide.insights:name=dimensions")
+public class Dimensions {
+    private final NameDictionary vendors;
+    private final NameDictionary categories;
+
+    @Autowired
+    public Dimensions(JdbcTemplate jdbcTemplate, @Lazy PlatformTransactionManager transactionManager) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        this.vendors = new NameDictionary(jdbcTemplate, transaction, "VENDOR", "V_NAME");
+        this.categories = new NameDictionary(jdbcTemplate, transaction, "CATEGORY", "C_NAME");
+    }
+
+    public NameDictionary vendors() {
+        return vendors;
+    }
+
+    public NameDictionary categories() {
+        return categories;
+    }
+
+    @ManagedAttribute(description = "Vendor names held in process")
+    public int getVendorCount() {
+        return vendors.size();
+    }
+
+    @ManagedAttribute(description = "Category names held in process")
+    public int getCategoryCount() {
+        return categories.size();
+    }
+}
@@ -0,0 +1,111 @@
+package com.nationwide.insights.domain.dimension;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The names of one dimension table and their int keys, held in process both ways once seen: a name to its key
+ * is a map lookup and a key to its name an array read, returning the same {@link String} for every row. A name
+ * not yet in the table is added in a short transaction of its own when none is running, so writers should
+ * {@link #idOf} their names before opening theirs. Inside a transaction it is added on that transaction's
+ * connection rather than a second pooled one, and only held once that transaction commits, since a rollback takes
+ * the row with it. A name added concurrently elsewhere is read back rather than added twice.
+ */
+public class NameDictionary {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final String selectId;
+    private final String selectName;
+    private final String insert;
+    private final ConcurrentMap<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private volatile String[] namesById = new String[0];
+
+    NameDictionary(JdbcTemplate jdbcTemplate, TransactionTemplate transaction, String table, String nameColumn) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = transaction;
+        this.selectId = "select ID from " + table + " where " + nameColumn + " = ?";
+        this.selectName = "select " + nameColumn + " from " + table + " where ID = ?";
+        this.insert = "insert into " + table + " (ID, " + nameColumn + ") values (next value for " + table + "_SEQ, ?)";
+    }
+
+    /**
+     * The key of {@code name}, adding it to the table if it isn't there.
+     */
+    public int idOf(String name) {
+        Integer id = idsByName.get(name);
+        return id != null ? id : load(name);
+    }
+
+    /**
+     * The name keyed by {@code id}.
+     *
+     * @throws IllegalArgumentException if no row has the key
+     */
+    public String nameOf(int id) {
+        String[] names = namesById;
+        if (id >= 0 && id < names.length && names[id] != null) {
+            return names[id];
+        }
+        List<String> found = jdbcTemplate.queryForList(selectName, String.class, id);
+        if (found.isEmpty()) {
+            throw new IllegalArgumentException("No name has the key " + id);
+        }
+        return remember(id, found.get(0));
+    }
+
+    public int size() {
+        return idsByName.size();
+    }
+
+    private int load(String name) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            int id = transaction.execute(status -> findOrAdd(name));
+            remember(id, name);
+            return id;
+        }
+        int id = findOrAdd(name);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(id, name);
+            }
+        });
+        return id;
+    }
+
+    private int findOrAdd(String name) {
+        List<Integer> found = jdbcTemplate.queryForList(selectId, Integer.class, name);
+        if (!found.isEmpty()) {
+            return found.get(0);
+        }
+        try {
+            jdbcTemplate.update(insert, name);
+        } catch (DataIntegrityViolationException e) {
+            // added by another transaction since the select
+        }
+        return jdbcTemplate.queryForObject(selectId, Integer.class, name);
+    }
+
+    private synchronized String remember(int id, String name) {
+        String[] names = namesById;
+        if (id >= names.length) {
+            names = Arrays.copyOf(names, Math.max(id + 1, names.length * 2));
+        } else if (names[id] != null) {
+            return names[id];
+        } else {
+            names = names.clone();
+        }
+        names[id] = name;
+        idsByName.put(name, id);
+        namesById = names;
+        return name;
+    }
+}
@@ -0,0 +1,66 @@
+package com.nationwide.insights.domain.dimension;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.Objects;
+
+/**
+ * A vendor name and the int key transactions and rollups hold instead of it. Rows are only ever added, by
+ * {@link Dimensions}, the first time a name is written.
+ */
+@Entity
+@Immutable
+@Table(name = "VENDOR")
+public class Vendor {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "VENDOR_SEQ")
+    @GenericGenerator(name = "VENDOR_SEQ", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "VENDOR_SEQ"),
+            @Parameter(name = "increment_size", value = "1")})
+    @Column(nullable = false)
+    private Integer id;
+
+    @Column(name = "V_NAME", nullable = false, unique = true, length = 250)
+    private String name;
+
+    public Vendor() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Vendor)) return false;
+        Vendor that = (Vendor) o;
+        return Objects.equals(getId(), that.getId()) &&
+                Objects.equals(getName(), that.getName());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getId(), getName());
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,29 @@
+package com.nationwide.insights.domain.dimension;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Writes a vendor name as its key in VENDOR and reads the key back as the name.
+ */
+@Converter
+public class VendorConverter implements AttributeConverter<String, Integer> {
+    private final Dimensions dimensions;
+
+    @Autowired
+    public VendorConverter(Dimensions dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String vendor) {
+        return vendor == null ? null : dimensions.vendors().idOf(vendor);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : dimensions.vendors().nameOf(id);
+    }
+}
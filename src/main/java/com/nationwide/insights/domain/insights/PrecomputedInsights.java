@@ -0,0 +1,96 @@
+package com.nationwide.insights.domain.insights;
+
+import com.nationwide.insights.domain.transactions.TransactionsVersion;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * A customer's insights as of one day, worked out ahead of time by the nightly precompute and held as the JSON
+ * array the API writes. Carries the {@link TransactionsVersion} they were worked out from, so they are only served
+ * while the customer's transactions are unchanged.
+ */
+@Entity
+@Table(name = "INSIGHTS")
+public class PrecomputedInsights {
+    @Id
+    @Column(name = "CUSTOMER_ID", nullable = false)
+    private Long customerId;
+
+    @Column(name = "I_AS_OF", nullable = false)
+    private LocalDate asOf;
+
+    @Column(name = "T_COUNT", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "T_MAX_ID", nullable = false)
+    private Long maxTransactionId;
+
+    @Column(name = "I_INSIGHTS", nullable = false, length = 65535)
+    private String insights;
+
+    public PrecomputedInsights() {
+    }
+
+    public PrecomputedInsights(Long customerId, LocalDate asOf, Long transactionCount, Long maxTransactionId,
+                               String insights) {
+        this.customerId = customerId;
+        this.asOf = asOf;
+        this.transactionCount = transactionCount;
+        this.maxTransactionId = maxTransactionId;
+        this.insights = insights;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public Long getMaxTransactionId() {
+        return maxTransactionId;
+    }
+
+    public String getInsights() {
+        return insights;
+    }
+
+    public void setInsights(String insights) {
+        this.insights = insights;
+    }
+
+    /**
+     * Whether these insights were worked out from the customer's transactions as they are in {@code version}.
+     */
+    public boolean isOf(TransactionsVersion version) {
+        return Objects.equals(transactionCount, version.getCount())
+                && Objects.equals(maxTransactionId, version.getMaxId());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PrecomputedInsights)) return false;
+        PrecomputedInsights that = (PrecomputedInsights) o;
+        return Objects.equals(customerId, that.customerId) &&
+                Objects.equals(asOf, that.asOf) &&
+                Objects.equals(transactionCount, that.transactionCount) &&
+                Objects.equals(maxTransactionId, that.maxTransactionId) &&
+                Objects.equals(insights, that.insights);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(customerId, asOf, transactionCount, maxTransactionId, insights);
+    }
+}
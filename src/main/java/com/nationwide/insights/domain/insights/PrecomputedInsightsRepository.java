@@ -0,0 +1,15 @@
+package com.nationwide.insights.domain.insights;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PrecomputedInsightsRepository extends JpaRepository<PrecomputedInsights, Long> {
+
+    @Modifying
+    @Query("delete from PrecomputedInsights p where p.customerId >= :first and p.customerId <= :last")
+    int deleteByCustomerIdBetween(@Param("first") Long first, @Param("last") Long last);
+}
@@ -0,0 +1,44 @@
+package com.nationwide.insights.domain.transactions;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * How many transactions an ingestion request wrote.
+ */
+public class IngestedTransactions {
+    @JsonProperty
+    private int count;
+
+    public IngestedTransactions() {
+    }
+
+    public IngestedTransactions(int count) {
+        this.count = count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IngestedTransactions)) return false;
+        IngestedTransactions that = (IngestedTransactions) o;
+        return count == that.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "count=" + count +
+                '}';
+    }
+}
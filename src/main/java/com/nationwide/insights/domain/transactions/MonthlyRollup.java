@@ -0,0 +1,154 @@
+package com.nationwide.insights.domain.transactions;
+
+import com.nationwide.insights.domain.dimension.Category;
+import com.nationwide.insights.domain.dimension.Vendor;
+
+import javax.persistence.Column;
+import javax.persistence.ConstraintMode;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.ForeignKey;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Sum and count of a customer's transactions with one vendor, in one category, over one calendar month.
+ * Kept in step with TRANSACTIONS by {@link MonthlyRollupListener}; the month is held as yyyyMM so a range
+ * of months is a range of the primary key. Vendor and category are keyed by their int ids; queries fetch the names
+ * with the rollup. The keys carry no foreign key constraint, which H2 would back with an index of its own.
+ */
+@Entity
+@IdClass(MonthlyRollupId.class)
+@Table(name = "CUSTOMER_MONTHLY_ROLLUP")
+public class MonthlyRollup implements MonthlySpend {
+    @Id
+    @Column(name = "CUSTOMER_ID", nullable = false)
+    private Long customerId;
+
+    @Id
+    @Column(name = "R_YEAR_MONTH", nullable = false)
+    private Integer yearMonth;
+
+    @Id
+    @Column(name = "VENDOR_ID", nullable = false)
+    private Integer vendorId;
+
+    @Id
+    @Column(name = "CATEGORY_ID", nullable = false)
+    private Integer categoryId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "VENDOR_ID", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Vendor vendor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "CATEGORY_ID", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Category category;
+
+    @Column(name = "R_TOTAL", nullable = false)
+    private BigDecimal total;
+
+    @Column(name = "R_COUNT", nullable = false)
+    private Long count;
+
+    public MonthlyRollup() {
+    }
+
+    public MonthlyRollup(Long customerId, Integer yearMonth, Integer vendorId, Integer categoryId, BigDecimal total, Long count) {
+        this.customerId = customerId;
+        this.yearMonth = yearMonth;
+        this.vendorId = vendorId;
+        this.categoryId = categoryId;
+        this.total = total;
+        this.count = count;
+    }
+
+    public static int yearMonthOf(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    @Override
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public Integer getYearMonth() {
+        return yearMonth;
+    }
+
+    public Integer getVendorId() {
+        return vendorId;
+    }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    @Override
+    public String getVendor() {
+        return vendor.getName();
+    }
+
+    @Override
+    public String getCategory() {
+        return category.getName();
+    }
+
+    @Override
+    public Integer getYear() {
+        return yearMonth / 100;
+    }
+
+    @Override
+    public Integer getMonth() {
+        return yearMonth % 100;
+    }
+
+    @Override
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    @Override
+    public Long getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MonthlyRollup)) return false;
+        MonthlyRollup that = (MonthlyRollup) o;
+        return Objects.equals(getCustomerId(), that.getCustomerId()) &&
+                Objects.equals(getYearMonth(), that.getYearMonth()) &&
+                Objects.equals(getVendorId(), that.getVendorId()) &&
+                Objects.equals(getCategoryId(), that.getCategoryId()) &&
+                Objects.equals(getTotal(), that.getTotal()) &&
+                Objects.equals(getCount(), that.getCount());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getCustomerId(), getYearMonth(), getVendorId(), getCategoryId(), getTotal(), getCount());
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "customerId=" + customerId +
+                ", yearMonth=" + yearMonth +
+                ", vendorId=" + vendorId +
+                ", categoryId=" + categoryId +
+                ", total=" + total +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.nationwide.insights.domain.transactions;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class MonthlyRollupId implements Serializable {
+    private Long customerId;
+    private Integer yearMonth;
+    private Integer vendorId;
+    private Integer categoryId;
+
+    public MonthlyRollupId() {
+    }
+
+    public MonthlyRollupId(Long customerId, Integer yearMonth, Integer vendorId, Integer categoryId) {
+        this.customerId = customerId;
+        this.yearMonth = yearMonth;
+        this.vendorId = vendorId;
+        this.categoryId = categoryId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public Integer getYearMonth() {
+        return yearMonth;
+    }
+
+    public Integer getVendorId() {
+        return vendorId;
+    }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MonthlyRollupId)) return false;
+        MonthlyRollupId that = (MonthlyRollupId) o;
+        return Objects.equals(customerId, that.customerId) &&
+                Objects.equals(yearMonth, that.yearMonth) &&
+                Objects.equals(vendorId, that.vendorId) &&
+                Objects.equals(categoryId, that.categoryId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(customerId, yearMonth, vendorId, categoryId);
+    }
+}
@@ -0,0 +1,222 @@
+package com.nationwide.insights.domain.transactions;
+
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.dimension.Dimensions;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import static com.nationwide.insights.domain.transactions.MonthlyRollup.yearMonthOf;
+
+/**
+ * Applies every insert, update and delete of a {@link Transactions} row to CUSTOMER_MONTHLY_ROLLUP as Hibernate
+ * writes it, on the same connection and so in the same database transaction. Changes are summed per rollup row
+ * while a flush runs and written with one batch of statements at its end, so a flush of thousands of rows into a
+ * few months costs a few rollup statements. An update moves the old amount out of its month and into the new one.
+ * A rollup row is only inserted once the customer's row is locked and the change has been added again, so two
+ * transactions writing a customer's first spend in a month with a vendor and category don't both insert it.
+ * SQL run outside Hibernate (bulk statements, scripts) is not seen here; rebuild the rollups afterwards.
+ * Each flush also publishes a {@link TransactionsChangedEvent} per customer written.
+ */
+@Component
+public class MonthlyRollupListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, FlushEventListener, AutoFlushEventListener {
+    private static final String ADD =
+            "update CUSTOMER_MONTHLY_ROLLUP set R_TOTAL = R_TOTAL + ?, R_COUNT = R_COUNT + ? " +
+                    "where CUSTOMER_ID = ? and R_YEAR_MONTH = ? and VENDOR_ID = ? and CATEGORY_ID = ?";
+    private static final String INSERT =
+            "insert into CUSTOMER_MONTHLY_ROLLUP (R_TOTAL, R_COUNT, CUSTOMER_ID, R_YEAR_MONTH, VENDOR_ID, CATEGORY_ID) " +
+                    "values (?, ?, ?, ?, ?, ?)";
+    private static final String LOCK_CUSTOMER = "select ID from CUSTOMER where ID = ? for update";
+    private static final String DELETE_EMPTY =
+            "delete from CUSTOMER_MONTHLY_ROLLUP " +
+                    "where R_COUNT = 0 and CUSTOMER_ID = ? and R_YEAR_MONTH = ? and VENDOR_ID = ? and CATEGORY_ID = ?";
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher events;
+    private final Dimensions dimensions;
+    private final Map<SharedSessionContractImplementor, Map<MonthlyRollupId, Delta>> pendingBySession =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Autowired
+    public MonthlyRollupListener(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                                 ApplicationEventPublisher events, Dimensions dimensions) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.events = events;
+        this.dimensions = dimensions;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.FLUSH, this);
+        registry.appendListeners(EventType.AUTO_FLUSH, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Transactions) {
+            add(event.getSession(), written(event.getPersister(), event.getState()), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Transactions && event.getOldState() != null) {
+            add(event.getSession(), written(event.getPersister(), event.getOldState()), -1);
+            add(event.getSession(), written(event.getPersister(), event.getState()), 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Transactions) {
+            add(event.getSession(), written(event.getPersister(), event.getDeletedState()), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        apply(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        apply(event.getSession());
+    }
+
+    private void add(EventSource session, Transactions transact, int count) {
+        MonthlyRollupId key = new MonthlyRollupId(transact.getCustomer().getId(), yearMonthOf(transact.getDate()),
+                dimensions.vendors().idOf(transact.getVendor()),
+                dimensions.categories().idOf(transact.getCategory()));
+        BigDecimal amount = count < 0 ? transact.getAmount().negate() : transact.getAmount();
+        pendingBySession.computeIfAbsent(session, pending -> new LinkedHashMap<>())
+                .computeIfAbsent(key, delta -> new Delta())
+                .add(amount, count);
+    }
+
+    private void apply(EventSource session) {
+        Map<MonthlyRollupId, Delta> pending = pendingBySession.remove(session);
+        if (pending == null) {
+            return;
+        }
+        List<MonthlyRollupId> keys = new ArrayList<>();
+        List<Object[]> changes = new ArrayList<>();
+        pending.forEach((key, delta) -> {
+            if (delta.count != 0 || delta.total.signum() != 0) {
+                keys.add(key);
+                changes.add(new Object[]{delta.total, delta.count,
+                        key.getCustomerId(), key.getYearMonth(), key.getVendorId(), key.getCategoryId()});
+            }
+        });
+        int[] updated = jdbcTemplate.batchUpdate(ADD, changes);
+        List<Object[]> missing = new ArrayList<>();
+        List<Object[]> emptied = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            Object[] change = changes.get(i);
+            if (updated[i] == 0 && pending.get(keys.get(i)).count > 0) {
+                missing.add(change);
+            } else if (updated[i] != 0 && pending.get(keys.get(i)).count < 0) {
+                emptied.add(Arrays.copyOfRange(change, 2, change.length));
+            }
+        }
+        insertMissing(missing);
+        jdbcTemplate.batchUpdate(DELETE_EMPTY, emptied);
+
+        Set<Long> customerIds = new LinkedHashSet<>();
+        pending.keySet().forEach(key -> customerIds.add(key.getCustomerId()));
+        customerIds.forEach(customerId -> events.publishEvent(new TransactionsChangedEvent(customerId)));
+    }
+
+    /**
+     * Inserts the rollup rows the first ADD found no row for. Their customers are locked in id order first, so a
+     * transaction inserting the same row waits for this one to commit, or this one for it; the changes are then
+     * added again, since such a transaction may have committed the row after the first ADD read nothing, and only
+     * the rows still missing are inserted. The order only holds within one flush, so a writer flushing several
+     * times locks all its customers when its transaction starts, as batch ingest does.
+     */
+    private void insertMissing(List<Object[]> missing) {
+        if (missing.isEmpty()) {
+            return;
+        }
+        missing.stream()
+                .map(change -> (Long) change[2])
+                .distinct()
+                .sorted()
+                .forEach(customerId -> jdbcTemplate.queryForList(LOCK_CUSTOMER, Long.class, customerId));
+        int[] updated = jdbcTemplate.batchUpdate(ADD, missing);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(missing.get(i));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT, inserts);
+    }
+
+    /**
+     * The row as Hibernate wrote it, which may differ from the entity if it changed again before the flush ended.
+     */
+    private Transactions written(EntityPersister persister, Object[] state) {
+        List<String> properties = Arrays.asList(persister.getPropertyNames());
+        Transactions written = new Transactions();
+        written.setAmount((BigDecimal) state[properties.indexOf("amount")]);
+        written.setDate((LocalDate) state[properties.indexOf("date")]);
+        written.setVendor((String) state[properties.indexOf("vendor")]);
+        written.setCategory((String) state[properties.indexOf("category")]);
+        written.setCustomer((Customer) state[properties.indexOf("customer")]);
+        return written;
+    }
+
+    private static class Delta {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+
+        void add(BigDecimal amount, int count) {
+            this.total = this.total.add(amount);
+            this.count += count;
+        }
+    }
+}
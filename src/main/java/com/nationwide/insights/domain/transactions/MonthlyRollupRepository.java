@@ -0,0 +1,36 @@
+package com.nationwide.insights.domain.transactions;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, MonthlyRollupId> {
+
+    @Query("select r from MonthlyRollup r join fetch r.vendor v join fetch r.category c " +
+            "where r.customerId = :id and r.yearMonth >= :from and r.yearMonth <= :to " +
+            "order by r.yearMonth, v.name, c.name")
+    List<MonthlySpend> findMonthlySpendByCustomerId(@Param("id") Long id,
+                                                    @Param("from") int fromYearMonth,
+                                                    @Param("to") int toYearMonth);
+
+    @Query("select r from MonthlyRollup r join fetch r.vendor v join fetch r.category c " +
+            "where r.customerId in :ids and r.yearMonth >= :from and r.yearMonth <= :to " +
+            "order by r.yearMonth, v.name, c.name")
+    List<MonthlySpend> findMonthlySpendByCustomerIdIn(@Param("ids") Collection<Long> ids,
+                                                      @Param("from") int fromYearMonth,
+                                                      @Param("to") int toYearMonth);
+
+    @Modifying
+    @Query(value = "insert into CUSTOMER_MONTHLY_ROLLUP (CUSTOMER_ID, R_YEAR_MONTH, VENDOR_ID, CATEGORY_ID, R_TOTAL, R_COUNT) " +
+            "select CUSTOMER_ID, T_YEAR_MONTH, VENDOR_ID, CATEGORY_ID, sum(T_AMOUNT), count(*) " +
+            "from TRANSACTIONS " +
+            "group by CUSTOMER_ID, T_YEAR_MONTH, VENDOR_ID, CATEGORY_ID",
+            nativeQuery = true)
+    int insertAllFromTransactions();
+}
@@ -0,0 +1,16 @@
+package com.nationwide.insights.domain.transactions;
+
+import java.math.BigDecimal;
+
+/**
+ * A customer's spend with one vendor, in one category, over one calendar month.
+ */
+public interface MonthlySpend {
+    Long getCustomerId();
+    String getVendor();
+    String getCategory();
+    Integer getYear();
+    Integer getMonth();
+    BigDecimal getTotal();
+    Long getCount();
+}
@@ -0,0 +1,103 @@
+package com.nationwide.insights.domain.transactions;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * A transaction to ingest, for a customer that already exists.
+ */
+public class NewTransaction {
+    @JsonProperty
+    @NotNull
+    @Positive(message = "Customer id must be greater than 0")
+    private Long customerId;
+    @JsonProperty
+    @NotNull
+    @Digits(integer = 98, fraction = 2)
+    private BigDecimal amount;
+    @JsonProperty
+    @NotNull
+    private LocalDate date;
+    @JsonProperty
+    @NotNull
+    private String description;
+    @JsonProperty
+    @NotBlank
+    private String category;
+    @JsonProperty
+    @NotBlank
+    private String vendor;
+
+    public NewTransaction() {
+    }
+
+    public NewTransaction(Long customerId, BigDecimal amount, LocalDate date, String description, String category, String vendor) {
+        this.customerId = customerId;
+        this.amount = amount;
+        this.date = date;
+        this.description = description;
+        this.category = category;
+        this.vendor = vendor;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getVendor() {
+        return vendor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof NewTransaction)) return false;
+        NewTransaction that = (NewTransaction) o;
+        return Objects.equals(getCustomerId(), that.getCustomerId()) &&
+                Objects.equals(getAmount(), that.getAmount()) &&
+                Objects.equals(getDate(), that.getDate()) &&
+                Objects.equals(getDescription(), that.getDescription()) &&
+                Objects.equals(getCategory(), that.getCategory()) &&
+                Objects.equals(getVendor(), that.getVendor());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getCustomerId(), getAmount(), getDate(), getDescription(), getCategory(), getVendor());
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "customerId=" + customerId +
+                ", amount=" + amount +
+                ", date=" + date +
+                ", description='" + description + '\'' +
+                ", category='" + category + '\'' +
+                ", vendor='" + vendor + '\'' +
+                '}';
+    }
+}
@@ -1,11 +1,46 @@
 package com.nationwide.insights.domain.transactions;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transactions, Long> {
+public interface TransactionRepository extends JpaRepository<Transactions, Long>, TransactionStreamRepository {
     List<Transactions> findAllByCustomerId(Long id);
+    boolean existsByCustomerId(Long id);
+
+    @Query("select distinct t.customer.id from Transactions t where t.customer.id in :ids")
+    Set<Long> findCustomerIdsWithTransactions(@Param("ids") Collection<Long> ids);
+
+    @Query("select count(t) as count, max(t.id) as maxId from Transactions t where t.customer.id = :id")
+    TransactionsVersion findVersionByCustomerId(@Param("id") Long id);
+
+    @Query("select t.customer.id as customerId, count(t) as count, max(t.id) as maxId from Transactions t " +
+            "where t.customer.id >= :first and t.customer.id <= :last group by t.customer.id")
+    List<TransactionsVersion> findVersionsByCustomerIdBetween(@Param("first") Long first, @Param("last") Long last);
+
+    @Query("select t.customer.id as customerId, t.vendor as vendor, t.category as category, " +
+            "t.yearMonth / 100 as year, mod(t.yearMonth, 100) as month, sum(t.amount) as total, count(t) as count " +
+            "from Transactions t " +
+            "where t.customer.id = :id and t.yearMonth >= :from and t.yearMonth <= :to " +
+            "group by t.customer.id, t.vendor, t.category, t.yearMonth " +
+            "order by t.yearMonth")
+    List<MonthlySpend> findMonthlySpendByCustomerId(@Param("id") Long id,
+                                                    @Param("from") int fromYearMonth,
+                                                    @Param("to") int toYearMonth);
+
+    @Query("select t.customer.id as customerId, t.vendor as vendor, t.category as category, " +
+            "t.yearMonth / 100 as year, mod(t.yearMonth, 100) as month, sum(t.amount) as total, count(t) as count " +
+            "from Transactions t " +
+            "where t.customer.id in :ids and t.yearMonth >= :from and t.yearMonth <= :to " +
+            "group by t.customer.id, t.vendor, t.category, t.yearMonth " +
+            "order by t.yearMonth")
+    List<MonthlySpend> findMonthlySpendByCustomerIdIn(@Param("ids") Collection<Long> ids,
+                                                      @Param("from") int fromYearMonth,
+                                                      @Param("to") int toYearMonth);
 }
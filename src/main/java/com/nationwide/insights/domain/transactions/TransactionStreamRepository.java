@@ -0,0 +1,38 @@
+package com.nationwide.insights.domain.transactions;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+public interface TransactionStreamRepository {
+    /**
+     * Streams a customer's transactions dated from {@code from} (inclusive) to {@code to} (exclusive), in date
+     * order, reading rows from the (CUSTOMER_ID, T_DATE) index in batches of the configured fetch size.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    Stream<Transactions> streamByCustomerIdAndDateRange(Long id, LocalDate from, LocalDate to);
+
+    /**
+     * As {@link #streamByCustomerIdAndDateRange} for several customers in one query.
+     */
+    Stream<Transactions> streamByCustomerIdInAndDateRange(Collection<Long> ids, LocalDate from, LocalDate to);
+
+    /**
+     * As {@link #streamByCustomerIdAndDateRange}, selecting only each row's date, amount, vendor and category, in
+     * that order, so no entity is created or kept in the persistence context.
+     */
+    Stream<Object[]> streamColumnsByCustomerIdAndDateRange(Long id, LocalDate from, LocalDate to);
+
+    /**
+     * As {@link #streamColumnsByCustomerIdAndDateRange} for several customers in one query, with the customer id
+     * first in each row.
+     */
+    Stream<Object[]> streamColumnsByCustomerIdInAndDateRange(Collection<Long> ids, LocalDate from, LocalDate to);
+
+    /**
+     * As {@link #streamColumnsByCustomerIdInAndDateRange} for every customer with an id from {@code first} to
+     * {@code last}, both inclusive, in customer id and then date order, so each customer's rows arrive together
+     * from one pass along the (CUSTOMER_ID, T_DATE) index.
+     */
+    Stream<Object[]> streamColumnsByCustomerIdBetweenAndDateRange(Long first, Long last, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,98 @@
+package com.nationwide.insights.domain.transactions;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public class TransactionStreamRepositoryImpl implements TransactionStreamRepository {
+    private static final String BY_CUSTOMER_AND_DATE_RANGE =
+            "select t from Transactions t " +
+                    "where t.customer.id = :id and t.date >= :from and t.date < :to " +
+                    "order by t.date";
+    private static final String BY_CUSTOMERS_AND_DATE_RANGE =
+            "select t from Transactions t " +
+                    "where t.customer.id in :ids and t.date >= :from and t.date < :to " +
+                    "order by t.date";
+    private static final String COLUMNS_BY_CUSTOMER_AND_DATE_RANGE =
+            "select t.date, t.amount, t.vendor, t.category from Transactions t " +
+                    "where t.customer.id = :id and t.date >= :from and t.date < :to " +
+                    "order by t.date";
+    private static final String COLUMNS_BY_CUSTOMERS_AND_DATE_RANGE =
+            "select t.customer.id, t.date, t.amount, t.vendor, t.category from Transactions t " +
+                    "where t.customer.id in :ids and t.date >= :from and t.date < :to " +
+                    "order by t.date";
+    private static final String COLUMNS_BY_CUSTOMER_RANGE_AND_DATE_RANGE =
+            "select t.customer.id, t.date, t.amount, t.vendor, t.category from Transactions t " +
+                    "where t.customer.id >= :first and t.customer.id <= :last and t.date >= :from and t.date < :to " +
+                    "order by t.customer.id, t.date";
+    private final EntityManager entityManager;
+    private final int fetchSize;
+
+    @Autowired
+    public TransactionStreamRepositoryImpl(EntityManager entityManager,
+                                           @Value("${insights.transactions.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<Transactions> streamByCustomerIdAndDateRange(Long id, LocalDate from, LocalDate to) {
+        return entityManager.createQuery(BY_CUSTOMER_AND_DATE_RANGE, Transactions.class)
+                .setParameter("id", id)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Transactions> streamByCustomerIdInAndDateRange(Collection<Long> ids, LocalDate from, LocalDate to) {
+        return entityManager.createQuery(BY_CUSTOMERS_AND_DATE_RANGE, Transactions.class)
+                .setParameter("ids", ids)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamColumnsByCustomerIdAndDateRange(Long id, LocalDate from, LocalDate to) {
+        return entityManager.createQuery(COLUMNS_BY_CUSTOMER_AND_DATE_RANGE, Object[].class)
+                .setParameter("id", id)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamColumnsByCustomerIdInAndDateRange(Collection<Long> ids, LocalDate from, LocalDate to) {
+        return entityManager.createQuery(COLUMNS_BY_CUSTOMERS_AND_DATE_RANGE, Object[].class)
+                .setParameter("ids", ids)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamColumnsByCustomerIdBetweenAndDateRange(Long first, Long last, LocalDate from,
+                                                                         LocalDate to) {
+        return entityManager.createQuery(COLUMNS_BY_CUSTOMER_RANGE_AND_DATE_RANGE, Object[].class)
+                .setParameter("first", first)
+                .setParameter("last", last)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
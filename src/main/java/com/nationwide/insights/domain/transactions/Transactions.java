@@ -1,12 +1,20 @@
 package com.nationwide.insights.domain.transactions;
 
 import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.dimension.CategoryConverter;
+import com.nationwide.insights.domain.dimension.VendorConverter;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
@@ -15,10 +23,16 @@ import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
-@Table(name = "TRANSACTIONS")
+@Table(name = "TRANSACTIONS",
+        indexes = {@Index(name = "IDX_TRANSACTIONS_CUSTOMER_DATE", columnList = "CUSTOMER_ID, T_DATE"),
+                @Index(name = "IDX_TRANSACTIONS_CUSTOMER_YEAR_MONTH", columnList = "CUSTOMER_ID, T_YEAR_MONTH")})
 public class Transactions {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "TRANSACTIONS_SEQ")
+    @GenericGenerator(name = "TRANSACTIONS_SEQ", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "TRANSACTIONS_SEQ"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")})
     @Column(nullable = false)
     private Long id;
 
@@ -28,16 +42,30 @@ public class Transactions {
     @Column(name = "T_DATE", nullable = false)
     private LocalDate date;
 
+    /**
+     * The calendar month of {@link #date} as {@code yyyyMM}, worked out by the database as the row is written so
+     * rows inserted with plain SQL have it too, and kept in step here for unsaved and changed entities.
+     */
+    @Column(name = "T_YEAR_MONTH", insertable = false, updatable = false,
+            columnDefinition = "INT AS (YEAR(T_DATE) * 100 + MONTH(T_DATE))")
+    private int yearMonth;
+
     @Column(nullable = false)
     private String description;
 
-    @Column(nullable = false)
+    /**
+     * Held as its key in the CATEGORY table, as {@link #vendor} is in VENDOR, so rows and their indexes carry an
+     * int rather than the name.
+     */
+    @Column(name = "CATEGORY_ID", nullable = false)
+    @Convert(converter = CategoryConverter.class)
     private String category;
 
-    @Column(nullable = false)
+    @Column(name = "VENDOR_ID", nullable = false)
+    @Convert(converter = VendorConverter.class)
     private String vendor;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CUSTOMER_ID", nullable = false)
     private Customer customer;
 
@@ -48,6 +76,7 @@ public class Transactions {
         this.id = id;
         this.amount = amount;
         this.date = date;
+        this.yearMonth = yearMonthOf(date);
         this.description = description;
         this.category = category;
         this.vendor = vendor;
@@ -76,6 +105,11 @@ public class Transactions {
 
     public void setDate(LocalDate date) {
         this.date = date;
+        this.yearMonth = yearMonthOf(date);
+    }
+
+    public int getYearMonth() {
+        return yearMonth;
     }
 
     public String getDescription() {
@@ -102,6 +136,18 @@ public class Transactions {
         this.vendor = vendor;
     }
 
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+
+    private static int yearMonthOf(LocalDate date) {
+        return date == null ? 0 : MonthlyRollup.yearMonthOf(date);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
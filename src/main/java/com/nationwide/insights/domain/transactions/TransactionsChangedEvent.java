@@ -0,0 +1,23 @@
+package com.nationwide.insights.domain.transactions;
+
+/**
+ * Published as a customer's transaction is inserted, updated or deleted, inside the writing transaction.
+ */
+public class TransactionsChangedEvent {
+    private final Long customerId;
+
+    public TransactionsChangedEvent(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "customerId=" + customerId +
+                '}';
+    }
+}
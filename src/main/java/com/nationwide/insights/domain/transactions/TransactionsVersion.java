@@ -0,0 +1,11 @@
+package com.nationwide.insights.domain.transactions;
+
+/**
+ * How many transactions a customer has and the highest of their ids: changes whenever one is added or deleted.
+ * The customer id is only selected when the versions of several customers are read at once.
+ */
+public interface TransactionsVersion {
+    Long getCustomerId();
+    Long getCount();
+    Long getMaxId();
+}
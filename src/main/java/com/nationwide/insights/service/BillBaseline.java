@@ -0,0 +1,13 @@
+package com.nationwide.insights.service;
+
+/**
+ * The amount bill tracking compares a vendor's latest bill against, worked out from the vendor's earlier entries.
+ * HALVING starts from the most recent earlier entry and halves the running amount with each older one, so the most
+ * recent months weigh most and the result depends on the order entries are visited in;
+ * MEAN is the exact mean of the earlier entries, kept as a sum and a count as they arrive, over the whole window or
+ * over the trailing {@code insights.bill-tracking.baseline-months} only.
+ */
+public enum BillBaseline {
+    HALVING,
+    MEAN
+}
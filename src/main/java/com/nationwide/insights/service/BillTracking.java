@@ -1,98 +1,298 @@
 package com.nationwide.insights.service;
 
 import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.MonthlySpend;
 import com.nationwide.insights.domain.transactions.Transactions;
 
-import java.math.BigDecimal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 
-import static java.math.RoundingMode.CEILING;
-import static java.util.Comparator.comparing;
+import static com.nationwide.insights.service.CustomerInsightsService.LAST_12_MONTHS;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Comparator.comparingInt;
 import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toUnmodifiableList;
+import static java.util.stream.Collectors.toList;
 
-public class BillTracking implements IBillTracking, ITransform {
+/**
+ * Bill tracking produces both {@link InsightType#BILL_TRACKING} and {@link InsightType#OUTGOINGS}.
+ */
+@Component
+@Order(1)
+public class BillTracking implements IBillTracking, IInsightProducer {
+    private static final Set<InsightType> TYPES =
+            unmodifiableSet(EnumSet.of(InsightType.BILL_TRACKING, InsightType.OUTGOINGS));
     private final IGenerateInsight cInsight;
+    private final BillBaseline baseline;
+    private final int baselineMonths;
+    private final ParallelAggregation parallel;
 
     public BillTracking(IGenerateInsight cInsight) {
+        this(cInsight, BillBaseline.HALVING, 0);
+    }
+
+    public BillTracking(IGenerateInsight cInsight, BillBaseline baseline, int baselineMonths) {
+        this(cInsight, baseline, baselineMonths, ParallelAggregation.SEQUENTIAL);
+    }
+
+    /**
+     * @param baselineMonths for {@link BillBaseline#MEAN}, the calendar months before the latest bill's month the
+     *                       baseline reaches back, or 0 for the whole window
+     * @param parallel       whether a window is large enough to split by vendor
+     */
+    @Autowired
+    public BillTracking(IGenerateInsight cInsight,
+                        @Value("${insights.bill-tracking.baseline:halving}") BillBaseline baseline,
+                        @Value("${insights.bill-tracking.baseline-months:0}") int baselineMonths,
+                        ParallelAggregation parallel) {
+        if (baselineMonths < 0) {
+            throw new IllegalArgumentException("Baseline months must not be negative: " + baselineMonths);
+        }
         this.cInsight = cInsight;
+        this.baseline = baseline;
+        this.baselineMonths = baselineMonths;
+        this.parallel = parallel;
+    }
+
+    @Override
+    public Set<InsightType> types() {
+        return TYPES;
+    }
+
+    @Override
+    public long monthsBack() {
+        return LAST_12_MONTHS;
+    }
+
+    @Override
+    public String stage() {
+        return "bill-tracking";
+    }
+
+    @Override
+    public void fromTransactions(List<Transactions> transactions, BiConsumer<InsightType, Insight> insights) {
+        billTrackingInsight(transactions, insights);
+    }
+
+    @Override
+    public void fromColumns(TransactionColumns columns, int fromRow, int toRow,
+                            BiConsumer<InsightType, Insight> insights) {
+        billTrackingInsight(columns, fromRow, toRow, insights);
+    }
+
+    @Override
+    public void fromMonthlySpend(List<MonthlySpend> monthlySpend, BiConsumer<InsightType, Insight> insights) {
+        monthlyBillTrackingInsight(monthlySpend, insights);
+    }
+
+    @Override
+    public List<Insight> billTrackingInsight(List<Transactions> transactions) {
+        return billTrackingInsight(historiesOf(transactions));
+    }
+
+    @Override
+    public void billTrackingInsight(List<Transactions> transactions, BiConsumer<InsightType, Insight> insights) {
+        billTrackingInsight(historiesOf(transactions), insights);
     }
 
     @Override
     public List<Insight> billTrackingInsight(Map<String, List<Transactions>> transactionByVendor) {
+        List<IVendorHistory> histories = new ArrayList<>(transactionByVendor.size());
+        transactionByVendor.forEach((vendor, transactions) -> {
+            IVendorHistory history = historyOf(vendor);
+            transactions.forEach(transact -> history.add(transact.getDate(), transact.getAmount(), transact.getCategory()));
+            histories.add(history);
+        });
+        return billTrackingInsight(histories);
+    }
+
+    @Override
+    public List<Insight> monthlyBillTrackingInsight(List<MonthlySpend> monthlySpend) {
+        return billTrackingInsight(monthlyHistoriesOf(monthlySpend));
+    }
+
+    @Override
+    public void monthlyBillTrackingInsight(List<MonthlySpend> monthlySpend,
+                                           BiConsumer<InsightType, Insight> insights) {
+        billTrackingInsight(monthlyHistoriesOf(monthlySpend), insights);
+    }
+
+    /**
+     * Bill tracking over rows {@code fromRow} (inclusive) to {@code toRow} (exclusive) of the columns, read in
+     * place without creating an entity, date or amount per row.
+     */
+    @Override
+    public void billTrackingInsight(TransactionColumns columns, int fromRow, int toRow,
+                                    BiConsumer<InsightType, Insight> insights) {
+        billTrackingInsight(historiesOf(columns, fromRow, toRow), insights);
+    }
+
+    private IVendorHistory historyOf(String vendor) {
+        return baseline == BillBaseline.MEAN ? new VendorMeanHistory(vendor, baselineMonths) : new VendorHistory(vendor);
+    }
+
+    private Collection<IVendorHistory> historiesOf(List<Transactions> transactions) {
+        if (parallel.splits(transactions.size())) {
+            return parallelHistoriesOf(transactions);
+        }
+        Map<String, IVendorHistory> historyByVendor = new HashMap<>();
+        for (Transactions transact : transactions) {
+            historyByVendor.computeIfAbsent(transact.getVendor(), this::historyOf)
+                    .add(transact.getDate(), transact.getAmount(), transact.getCategory());
+        }
+        return historyByVendor.values();
+    }
+
+    /**
+     * Histories are found by vendor id, and also collected by name just as {@link #historiesOf(List)} does, so
+     * vendors whose latest bills share a date come out in the same order as from transactions.
+     */
+    private Collection<IVendorHistory> historiesOf(TransactionColumns columns, int fromRow, int toRow) {
+        if (parallel.splits(toRow - fromRow)) {
+            return parallelHistoriesOf(columns, fromRow, toRow);
+        }
+        IVendorHistory[] historyByVendorId = new IVendorHistory[columns.vendorCount()];
+        Map<String, IVendorHistory> historyByVendor = new HashMap<>();
+        for (int row = fromRow; row < toRow; row++) {
+            int vendorId = columns.vendorId(row);
+            IVendorHistory history = historyByVendorId[vendorId];
+            if (history == null) {
+                history = historyByVendor.computeIfAbsent(columns.vendorName(vendorId), this::historyOf);
+                historyByVendorId[vendorId] = history;
+            }
+            history.add(columns.epochDay(row), columns.amountInPence(row), Pence.SCALE,
+                    columns.categoryName(columns.categoryId(row)));
+        }
+        return historyByVendor.values();
+    }
 
-        Map<String, List<CustomerInsight>> mapInsightsByVendor = transformToInsightGroup(transactionByVendor);
-
-        return mapInsightsByVendor.entrySet().stream()
-                .map(Map.Entry::getValue)
-                .map(this::combineLikenedInsights)
-                .map(this::generateThisRecentInsight)
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .flatMap(ci -> ci.getInsights().stream())
-                .collect(toUnmodifiableList());
-    }
-
-    private Map<String, List<CustomerInsight>> transformToInsightGroup(Map<String, List<Transactions>> transactionByVendor) {
-        Map<String, List<CustomerInsight>> mapInsightsByVendor =
-                transactionByVendor.entrySet().stream()
-                        .flatMap(entry -> entry.getValue().stream()
-                                .map(this::mapToInsightFrom))
-                        .sorted(comparing(CustomerInsight::getDate).reversed())
-                        .collect(groupingBy(CustomerInsight::getVendor, LinkedHashMap::new, toUnmodifiableList()));
-        return mapInsightsByVendor;
-    }
-
-    private List<CustomerInsight> combineLikenedInsights(List<CustomerInsight> dateOrderedVendorList) {
-        Map<String, List<CustomerInsight>> sameBill =
-                dateOrderedVendorList.stream()
-                        .sorted(comparing(CustomerInsight::getDate).reversed())
-                        .collect(groupingBy(CustomerInsight::getVendor, LinkedHashMap::new, toUnmodifiableList()));
-
-        return sameBill.values().stream()
-                .flatMap(catEntry -> {
-                    return catEntry.stream()
-                            .skip(1)
-                            .reduce((mostRecent, next) -> {
-                                BigDecimal add = mostRecent.getAmount().add(next.getAmount());
-                                // not sure about precision here as the spec omits precision
-                                mostRecent.setAmount(add.divide(BigDecimal.valueOf(2L), CEILING));
-                                return mostRecent;
-                            }).stream().map(mostRecent -> {
-                                ArrayList<CustomerInsight> insights = new ArrayList<>();
-                                insights.add(catEntry.get(0));
-                                insights.add(mostRecent);
-                                return insights;
-                            }).flatMap(Collection::stream);
+    /**
+     * Same histories with the work split by vendor on the aggregation pool: the transactions are grouped by vendor
+     * in parallel, each vendor's kept in window order, then each vendor's history is built as a task of its own.
+     */
+    private Collection<IVendorHistory> parallelHistoriesOf(List<Transactions> transactions) {
+        return inFirstSeenOrder(parallel.invoke(() -> {
+            List<List<Transactions>> byVendor = new ArrayList<>(transactions.parallelStream()
+                    .collect(groupingBy(Transactions::getVendor, LinkedHashMap::new, toList()))
+                    .values());
+            return byVendor.parallelStream()
+                    .map(vendorTransactions -> {
+                        IVendorHistory history = historyOf(vendorTransactions.get(0).getVendor());
+                        vendorTransactions.forEach(transact ->
+                                history.add(transact.getDate(), transact.getAmount(), transact.getCategory()));
+                        return history;
+                    })
+                    .collect(toList());
+        }));
+    }
+
+    /**
+     * Same histories from the columns with the work split by vendor on the aggregation pool: the rows are bucketed
+     * by vendor id in one counting pass, then each vendor's rows, still in date order, are added to its history as a
+     * task of its own.
+     */
+    private Collection<IVendorHistory> parallelHistoriesOf(TransactionColumns columns, int fromRow, int toRow) {
+        int vendors = columns.vendorCount();
+        int[] offsets = new int[vendors + 1];
+        for (int row = fromRow; row < toRow; row++) {
+            offsets[columns.vendorId(row) + 1]++;
+        }
+        for (int vendorId = 0; vendorId < vendors; vendorId++) {
+            offsets[vendorId + 1] += offsets[vendorId];
+        }
+        int[] next = Arrays.copyOf(offsets, vendors);
+        int[] rowsByVendor = new int[toRow - fromRow];
+        for (int row = fromRow; row < toRow; row++) {
+            rowsByVendor[next[columns.vendorId(row)]++] = row;
+        }
+        int[] vendorIds = IntStream.range(0, vendors)
+                .filter(vendorId -> offsets[vendorId] < offsets[vendorId + 1])
+                .boxed()
+                .sorted(comparingInt(vendorId -> rowsByVendor[offsets[vendorId]]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        return inFirstSeenOrder(parallel.invoke(() -> Arrays.stream(vendorIds).parallel()
+                .mapToObj(vendorId -> {
+                    IVendorHistory history = historyOf(columns.vendorName(vendorId));
+                    for (int i = offsets[vendorId]; i < offsets[vendorId + 1]; i++) {
+                        int row = rowsByVendor[i];
+                        history.add(columns.epochDay(row), columns.amountInPence(row), Pence.SCALE,
+                                columns.categoryName(columns.categoryId(row)));
+                    }
+                    return history;
                 })
-                .sorted(comparing(CustomerInsight::getDate).reversed())
-                .collect(toUnmodifiableList());
+                .collect(toList())));
     }
 
-    public List<CustomerInsight> generateThisRecentInsight(List<CustomerInsight> list) {
-        return list.stream()
-                .sorted(comparing(CustomerInsight::getDate).reversed())
-                .reduce((recent, past) -> generateThisInsight(recent, past))
-                .stream()
-                .collect(toUnmodifiableList());
+    /**
+     * Collects histories, listed in the order their vendors were first seen, as one thread would have, so
+     * vendors whose latest bills share a date come out in the same order whether or not the window was split.
+     */
+    private static Collection<IVendorHistory> inFirstSeenOrder(List<IVendorHistory> histories) {
+        Map<String, IVendorHistory> historyByVendor = new HashMap<>();
+        histories.forEach(history -> historyByVendor.computeIfAbsent(history.getVendor(), vendor -> history));
+        return historyByVendor.values();
     }
 
-    public CustomerInsight generateThisInsight(CustomerInsight recent, CustomerInsight past) {
-        return cInsight.generateInsightFrom(recent, past);
+    private Collection<IVendorHistory> monthlyHistoriesOf(List<MonthlySpend> monthlySpend) {
+        Map<String, IVendorHistory> historyByVendor = new HashMap<>();
+        for (MonthlySpend spend : monthlySpend) {
+            historyByVendor.computeIfAbsent(spend.getVendor(), this::historyOf)
+                    .add(LocalDate.of(spend.getYear(), spend.getMonth(), 1), spend.getTotal(), spend.getCategory());
+        }
+        return historyByVendor.values();
     }
 
-    @Override
-    public CustomerInsight mapToInsightFrom(Transactions transact) {
-        CustomerInsight cInsight = new CustomerInsight();
-        cInsight.setAmount(transact.getAmount());
-        cInsight.setDate(transact.getDate());
-        cInsight.setCategory(transact.getCategory());
-        cInsight.setVendor(transact.getVendor());
-        return cInsight;
+    private List<Insight> billTrackingInsight(Collection<IVendorHistory> histories) {
+        List<Insight> insights = new ArrayList<>();
+        billTrackingInsight(histories, (type, insight) -> insights.add(insight));
+        return unmodifiableList(insights);
+    }
+
+    /**
+     * Hands each vendor's insight to {@code insights} as soon as it is worked out, most recent vendor first.
+     */
+    private void billTrackingInsight(Collection<IVendorHistory> histories, BiConsumer<InsightType, Insight> insights) {
+        histories.stream()
+                .sorted(comparingInt(IVendorHistory::getLatestEpochDay).reversed())
+                .forEachOrdered(history -> generateThisRecentInsight(history, insights));
+    }
+
+    private void generateThisRecentInsight(IVendorHistory history, BiConsumer<InsightType, Insight> insights) {
+        OptionalLong baseline = history.baseline();
+        if (baseline.isPresent()) {
+            cInsight.generateInsightFrom(mostRecent(history), previous(baseline.getAsLong())).forEachInsight(insights);
+        }
+    }
+
+    private CustomerInsight mostRecent(IVendorHistory history) {
+        CustomerInsight recent = new CustomerInsight();
+        recent.setAmountInPence(history.getLatestAmount());
+        recent.setDate(history.getLatestDate());
+        recent.setCategory(history.getLatestCategory());
+        recent.setVendor(history.getVendor());
+        return recent;
+    }
+
+    private CustomerInsight previous(long baseline) {
+        CustomerInsight past = new CustomerInsight();
+        past.setAmountInPence(baseline);
+        return past;
     }
 }
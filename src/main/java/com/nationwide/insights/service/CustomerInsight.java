@@ -2,32 +2,28 @@ package com.nationwide.insights.service;
 
 import com.nationwide.insights.domain.Insight;
 import org.slf4j.Logger;
-import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiConsumer;
 
 import static com.nationwide.insights.service.InsightType.BILL_TRACKING;
 import static com.nationwide.insights.service.InsightType.OUTGOINGS;
 import static com.nationwide.insights.service.InsightType.SPEND_BY_CATEGORY;
-import static java.lang.String.format;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toList;
 import static org.slf4j.LoggerFactory.getLogger;
 
-@Component
-public class CustomerInsight implements ICustomerInsight, IGenerateInsight {
+public class CustomerInsight implements ICustomerInsight {
     private static final Logger LOG = getLogger(CustomerInsight.class.getCanonicalName());
     public static final String MORE = "more";
     public static final String LESS = "less";
     public static final String REQUESTED_FORMAT = "%.0f";
-    private BigDecimal amount;
+    private long amount;
     private String category;
     private String vendor;
     private LocalDate date;
@@ -50,10 +46,18 @@ public class CustomerInsight implements ICustomerInsight, IGenerateInsight {
     }
 
     public BigDecimal getAmount() {
-        return amount;
+        return Pence.toPounds(amount);
     }
 
     public void setAmount(BigDecimal amount) {
+        this.amount = Pence.of(amount);
+    }
+
+    public long getAmountInPence() {
+        return amount;
+    }
+
+    public void setAmountInPence(long amount) {
         this.amount = amount;
     }
 
@@ -90,52 +94,44 @@ public class CustomerInsight implements ICustomerInsight, IGenerateInsight {
     }
 
     @Override
-    public void generateHigherSpend(BigDecimal more) {
+    public void generateHigherSpend(long more) {
         setTracking(MORE, more);
     }
 
     @Override
-    public void generateLowerSpend(BigDecimal less) {
+    public void generateLowerSpend(long less) {
         setTracking(LESS, less);
     }
 
     @Override
-    public void setSpendByCategory(BigDecimal updatedAmount) {
-        setAmount(updatedAmount);
-        String insight = format(Locale.UK, "You've spent %s%.0f in %s this month", getUKPoundSign(), getAmount().abs(), getCategory());
+    public void setSpendByCategory(long updatedAmount) {
+        setAmountInPence(updatedAmount);
+        String insight = InsightTemplate.of(SPEND_BY_CATEGORY).render(getVendor(), getCategory(), amount, null);
         setInsightDetails(SPEND_BY_CATEGORY, insight);
 //        LOG.info(format("category: %s | amount: %s ", this.getCategory(), updatedAmount));
     }
 
-    private String getUKPoundSign() {
-        return new String("£".getBytes(UTF_8), UTF_8);
-    }
-
-    private String setTracking(String trackingStyle, BigDecimal lessOrMore) {
+    private String setTracking(String trackingStyle, long lessOrMore) {
         String insightStr;
         if (this.getCategory().equalsIgnoreCase("bill")) {
-            insightStr = format("Your latest %s %s is %s%.0f %s than previous months",
-                    this.getVendor(),
-                    this.getCategory(),
-                    this.getUKPoundSign(),
-                    lessOrMore.abs(),
-                    trackingStyle);
+            insightStr = InsightTemplate.of(BILL_TRACKING).render(getVendor(), getCategory(), lessOrMore, trackingStyle);
             setInsightDetails(BILL_TRACKING, insightStr);
 //            LOG.info(format("category: %s | %s %s ", this.getCategory(), this.getAmount(), trackingStyle));
         } else {
-            insightStr = format("Your latest %s spend in %s is %s%.0f %s than previous months",
-                    this.getCategory(),
-                    this.getVendor(),
-                    this.getUKPoundSign(),
-                    lessOrMore.abs(),
-                    trackingStyle);
+            insightStr = InsightTemplate.of(OUTGOINGS).render(getVendor(), getCategory(), lessOrMore, trackingStyle);
             setInsightDetails(OUTGOINGS, insightStr);
         }
 //        LOG.info(format("category: %s | %s %s ", this.getCategory(), this.getAmount(), trackingStyle));
         return insightStr;
     }
 
-    @Override
+    /**
+     * Hands each insight to {@code insights} along with its type.
+     */
+    public void forEachInsight(BiConsumer<InsightType, Insight> insights) {
+        insightMap.forEach((type, texts) -> texts.forEach(text -> insights.accept(type, new Insight(text))));
+    }
+
     public List<Insight> getInsights() {
         return this.insightMap.entrySet().stream()
                 .flatMap(e -> e.getValue().stream().map(Insight::new))
@@ -150,16 +146,6 @@ public class CustomerInsight implements ICustomerInsight, IGenerateInsight {
         this.setInsightMap(type, this.insights);
     }
 
-    @Override
-    public CustomerInsight generateInsightFrom(CustomerInsight recent, CustomerInsight next) {
-        if (recent.getAmount().compareTo(next.getAmount()) == 1) {
-            recent.generateHigherSpend(recent.getAmount().subtract(next.getAmount()));
-        } else if (recent.getAmount().compareTo(next.getAmount()) == -1) {
-            recent.generateLowerSpend(next.getAmount().subtract(recent.getAmount()));
-        }
-        return recent;
-    }
-
     public void setInsightMap(InsightType type, List<String> insights) {
         this.insightMap.put(type, insights);
     }
@@ -167,7 +153,7 @@ public class CustomerInsight implements ICustomerInsight, IGenerateInsight {
     @Override
     public String toString() {
         return "CustomerInsight{" +
-                "amount=" + amount +
+                "amount=" + getAmount() +
                 ", category='" + category + '\'' +
                 ", vendor='" + vendor + '\'' +
                 ", date=" + date +
@@ -183,7 +169,7 @@ public class CustomerInsight implements ICustomerInsight, IGenerateInsight {
         if (this == o) return true;
         if (!(o instanceof CustomerInsight)) return false;
         CustomerInsight insight1 = (CustomerInsight) o;
-        return Objects.equals(amount, insight1.amount) &&
+        return amount == insight1.amount &&
                 Objects.equals(category, insight1.category) &&
                 Objects.equals(vendor, insight1.vendor) &&
                 Objects.equals(date, insight1.date) &&
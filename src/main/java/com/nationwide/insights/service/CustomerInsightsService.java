@@ -1,75 +1,541 @@
 package com.nationwide.insights.service;
 
 import com.nationwide.insights.api.exception.TransactionNotFoundException;
+import com.nationwide.insights.domain.CustomerInsights;
 import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.MonthlyRollupRepository;
+import com.nationwide.insights.domain.transactions.MonthlySpend;
 import com.nationwide.insights.domain.transactions.TransactionRepository;
 import com.nationwide.insights.domain.transactions.Transactions;
+import com.nationwide.insights.domain.transactions.TransactionsVersion;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 import java.util.stream.Stream;
 
-import static java.time.LocalDate.now;
+import static com.nationwide.insights.domain.transactions.MonthlyRollup.yearMonthOf;
+import static com.nationwide.insights.service.InsightAggregation.COLUMNAR;
+import static com.nationwide.insights.service.InsightAggregation.DATABASE;
+import static com.nationwide.insights.service.InsightAggregation.ROLLUP;
+import static com.nationwide.insights.service.InsightAggregation.TRANSACTIONS;
+import static com.nationwide.insights.service.InsightMetrics.Stage.FETCH;
+import static com.nationwide.insights.service.InsightMetrics.Stage.WINDOW;
 import static java.time.temporal.ChronoUnit.MONTHS;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
 import static org.slf4j.LoggerFactory.getLogger;
 
 @Service
-public class CustomerInsightsService implements IInsightType {
+public class CustomerInsightsService {
     private static final Logger LOG = getLogger(CustomerInsightsService.class.getCanonicalName());
     public static final int LAST_12_MONTHS = 12;
     public static final int CURRENT_MONTH = 0;
+    public static final Set<InsightType> ALL_INSIGHT_TYPES = unmodifiableSet(EnumSet.allOf(InsightType.class));
     private final TransactionRepository repository;
-    private List<Transactions> transactions;
-    private IGenerateInsight cInsight;
+    private final MonthlyRollupRepository rollupRepository;
+    private final TransactionColumnStore columnStore;
+    private final InsightAggregation aggregation;
+    private final Executor batchExecutor;
+    private final Executor generatorExecutor;
+    private final InsightMetrics metrics;
+    private final Clock clock;
+    private final List<IInsightProducer> producers;
 
 
+    /**
+     * @param producers every {@link IInsightProducer}, in {@link org.springframework.core.annotation.Order} order
+     * @throws IllegalArgumentException if a producer reads more than the {@value #LAST_12_MONTHS} months before
+     *                                  this one, the most a window holds
+     */
     @Autowired
-    public CustomerInsightsService(TransactionRepository repository, IGenerateInsight cInsight) {
+    public CustomerInsightsService(TransactionRepository repository, MonthlyRollupRepository rollupRepository,
+                                   TransactionColumnStore columnStore, List<IInsightProducer> producers,
+                                   @Value("${insights.aggregation:transactions}") InsightAggregation aggregation,
+                                   @Qualifier("insightsBatchExecutor") Executor batchExecutor,
+                                   @Qualifier("insightsGeneratorExecutor") Executor generatorExecutor,
+                                   InsightMetrics metrics, Clock clock) {
+        for (IInsightProducer producer : producers) {
+            if (producer.monthsBack() < CURRENT_MONTH || producer.monthsBack() > LAST_12_MONTHS) {
+                throw new IllegalArgumentException("Insight producer " + producer.stage() + " reads "
+                        + producer.monthsBack() + " months back, outside " + CURRENT_MONTH + " to " + LAST_12_MONTHS);
+            }
+        }
         this.repository = repository;
-        this.cInsight = cInsight;
-        this.transactions = new ArrayList<>();
+        this.rollupRepository = rollupRepository;
+        this.columnStore = columnStore;
+        this.producers = List.copyOf(producers);
+        this.aggregation = aggregation;
+        this.batchExecutor = batchExecutor;
+        this.generatorExecutor = generatorExecutor;
+        this.metrics = metrics;
+        this.clock = clock;
+    }
+
+    /**
+     * The number of the customer's transactions and the highest of their ids, read with one indexed query before
+     * any insight is worked out. Insights worked out afterwards include every transaction it counts.
+     */
+    public TransactionsVersion transactionsVersion(Long id) {
+        return repository.findVersionByCustomerId(id);
+    }
+
+    /**
+     * A weak ETag for the customer's insights of the given types as of {@code asOf} at their {@link
+     * #transactionsVersion}: the number of the customer's transactions, the highest of their ids and the day, since
+     * the window moves on daily, followed by the types unless all were asked for. Adding or deleting a transaction
+     * changes it; a row changed in place keeps the old tag until the customer's next insert or delete. Empty if the
+     * customer has no transactions.
+     */
+    public Optional<String> insightsETag(TransactionsVersion version, LocalDate asOf, Set<InsightType> types) {
+        if (version.getCount() == 0L) {
+            return Optional.empty();
+        }
+        String tag = version.getCount() + "-" + version.getMaxId() + "-" + asOf;
+        if (!types.containsAll(ALL_INSIGHT_TYPES)) {
+            tag += "-" + EnumSet.copyOf(types).stream().map(Enum::name).collect(joining("+"));
+        }
+        return Optional.of("W/\"" + tag + "\"");
     }
 
+    @Transactional(readOnly = true)
     public List<Insight> customerInsightsById(Long id) {
-        transactions = repository.findAllByCustomerId(id);
-        if (transactions.isEmpty()) {
-            throw new TransactionNotFoundException(id);
+        return customerInsightsById(id, LocalDate.now(clock));
+    }
+
+    /**
+     * The customer's insights as of {@code asOf} rather than today: "this month" is the month of {@code asOf} and
+     * the window of previous months ends there, so a past month can be worked out again, with the same result for
+     * as long as its transactions are unchanged.
+     */
+    @Transactional(readOnly = true)
+    public List<Insight> customerInsightsById(Long id, LocalDate asOf) {
+        return customerInsightsById(id, asOf, ALL_INSIGHT_TYPES);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Insight> customerInsightsById(Long id, LocalDate asOf, Set<InsightType> types) {
+        List<Insight> insights = new ArrayList<>();
+        customerInsightsById(id, asOf, types, insights::add);
+        return insights;
+    }
+
+    @Transactional(readOnly = true)
+    public void customerInsightsById(Long id, Consumer<Insight> insights) {
+        customerInsightsById(id, LocalDate.now(clock), insights);
+    }
+
+    @Transactional(readOnly = true)
+    public void customerInsightsById(Long id, LocalDate asOf, Consumer<Insight> insights) {
+        customerInsightsById(id, asOf, ALL_INSIGHT_TYPES, insights);
+    }
+
+    /**
+     * Hands each insight of the given types to {@code insights} in producer order, so a caller writing them out
+     * never holds the whole result. Only the producers handing out those types run, concurrently on the generator
+     * executor, and the window read is only as long as the longest of them needs: this month for
+     * {@link InsightType#SPEND_BY_CATEGORY} alone, the last {@value #LAST_12_MONTHS} months once bills are tracked.
+     * The first producer's insights are handed on as it works them out and the others' once it is done. Throws
+     * {@link TransactionNotFoundException} before the first insight if the customer has no transactions.
+     */
+    @Transactional(readOnly = true)
+    public void customerInsightsById(Long id, LocalDate asOf, Set<InsightType> types, Consumer<Insight> insights) {
+        BiConsumer<InsightType, Insight> selected = (type, insight) -> {
+            if (types.contains(type)) {
+                insights.accept(insight);
+            }
+        };
+        List<IInsightProducer> producing = producersOf(types);
+        if (aggregation == TRANSACTIONS) {
+            insightsFromTransactions(id, asOf, producing, selected);
+        } else if (aggregation == COLUMNAR) {
+            insightsFromColumns(id, asOf, producing, selected);
+        } else {
+            insightsFromMonthlySpend(id, asOf, producing, selected);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, CustomerInsights> customerInsightsByIds(Collection<Long> ids) {
+        return customerInsightsByIds(ids, LocalDate.now(clock));
+    }
+
+    /**
+     * Insights for many customers as of {@code today}: one query reads every customer's window, then each
+     * customer's insights are worked out in parallel on the batch executor. A customer with no transactions gets
+     * a 404 entry rather than failing the batch. Entries are in the order the ids were requested.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, CustomerInsights> customerInsightsByIds(Collection<Long> ids, LocalDate today) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, CompletableFuture<List<Insight>>> insightsById = new LinkedHashMap<>();
+        if (aggregation == TRANSACTIONS) {
+            Map<Long, List<Transactions>> transactionsById = transactionsByIds(distinctIds, today);
+            distinctIds.forEach(id -> insightsById.put(id, supplyAsync(() ->
+                    insightsFromTransactions(transactionsById.getOrDefault(id, emptyList()), today), batchExecutor)));
+        } else if (aggregation == COLUMNAR) {
+            Map<Long, TransactionColumns> columnsById = columnStore.getAll(distinctIds, today);
+            distinctIds.forEach(id -> insightsById.put(id, supplyAsync(() ->
+                    insightsFromColumns(columnsById.get(id), today), batchExecutor)));
+        } else {
+            Map<Long, List<MonthlySpend>> monthlySpendById = monthlySpendByIds(distinctIds, today);
+            distinctIds.forEach(id -> insightsById.put(id, supplyAsync(() ->
+                    insightsFromMonthlySpend(monthlySpendById.getOrDefault(id, emptyList()), today), batchExecutor)));
+        }
+        Set<Long> withTransactions = repository.findCustomerIdsWithTransactions(distinctIds);
+
+        Map<Long, CustomerInsights> batch = new LinkedHashMap<>();
+        insightsById.forEach((id, insights) -> batch.put(id, withTransactions.contains(id)
+                ? new CustomerInsights(OK.value(), insights.join(), null)
+                : new CustomerInsights(NOT_FOUND.value(), null, notFound(id).getMessage())));
+        return batch;
+    }
+
+    private void insightsFromTransactions(Long id, LocalDate today, List<IInsightProducer> producing,
+                                          BiConsumer<InsightType, Insight> insights) {
+        long fetchStart = System.nanoTime();
+        List<Transactions> window;
+        try (Stream<Transactions> transactions = repository.streamByCustomerIdAndDateRange(id,
+                windowStart(monthsBack(producing), today), windowEnd(today))) {
+            window = transactions.collect(toList());
+        }
+        metrics.record(FETCH, fetchStart);
+        metrics.rowsFetched(window.size());
+        if (window.isEmpty() && !repository.existsByCustomerId(id)) {
+            throw notFound(id);
+        }
+        insightsFromTransactions(window, today, producing, generatorExecutor, insights);
+    }
+
+    private Map<Long, List<Transactions>> transactionsByIds(Collection<Long> ids, LocalDate today) {
+        try (Stream<Transactions> transactions = repository.streamByCustomerIdInAndDateRange(ids,
+                windowStart(LAST_12_MONTHS, today), windowEnd(today))) {
+            return transactions.collect(groupingBy(transact -> transact.getCustomer().getId()));
+        }
+    }
+
+    private List<Insight> insightsFromTransactions(List<Transactions> window, LocalDate today) {
+        List<Insight> insights = new ArrayList<>();
+        insightsFromTransactions(window, today, producers, Runnable::run, (type, insight) -> insights.add(insight));
+        return insights;
+    }
+
+    /**
+     * Splits the window into the months each producer reads, in one pass comparing each transaction's epoch day
+     * against bounds worked out once per distinct number of months, then runs the producers on {@code executor}.
+     */
+    private void insightsFromTransactions(List<Transactions> window, LocalDate today,
+                                          List<IInsightProducer> producing, Executor executor,
+                                          BiConsumer<InsightType, Insight> insights) {
+        long windowStart = System.nanoTime();
+        long[] monthsBack = producing.stream().mapToLong(IInsightProducer::monthsBack).distinct().toArray();
+        int[][] days = new int[monthsBack.length][];
+        List<List<Transactions>> slices = new ArrayList<>(monthsBack.length);
+        for (int i = 0; i < monthsBack.length; i++) {
+            days[i] = daysFromThisMth(monthsBack[i], today);
+            slices.add(new ArrayList<>());
+        }
+        for (Transactions transact : window) {
+            long day = transact.getDate().toEpochDay();
+            for (int i = 0; i < days.length; i++) {
+                if (day >= days[i][0] && day < days[i][1]) {
+                    slices.get(i).add(transact);
+                }
+            }
+        }
+        Map<Long, List<Transactions>> sliceByMonthsBack = new HashMap<>();
+        for (int i = 0; i < monthsBack.length; i++) {
+            sliceByMonthsBack.put(monthsBack[i], slices.get(i));
+        }
+        metrics.record(WINDOW, windowStart);
+        produce(producing, executor, (producer, sink) ->
+                producer.fromTransactions(sliceByMonthsBack.get(producer.monthsBack()), sink), insights, metrics);
+    }
+
+    private void insightsFromColumns(Long id, LocalDate today, List<IInsightProducer> producing,
+                                     BiConsumer<InsightType, Insight> insights) {
+        long fetchStart = System.nanoTime();
+        TransactionColumns columns = columnStore.get(id, today);
+        metrics.record(FETCH, fetchStart);
+        metrics.rowsFetched(columns.size());
+        if (columns.size() == 0 && !repository.existsByCustomerId(id)) {
+            throw notFound(id);
         }
-        return Stream.of(billTrackingInsight(transactions),
-                spendByCategoryInsight(transactions))
-                .flatMap(Collection::stream)
+        insightsFromColumns(columns, today, producing, generatorExecutor, insights, metrics);
+    }
+
+    List<Insight> insightsFromColumns(TransactionColumns columns, LocalDate today) {
+        return insightsFromColumns(columns, today, metrics);
+    }
+
+    /**
+     * The customer's insights from their columns, recorded in {@code metrics} rather than the request metrics.
+     */
+    List<Insight> insightsFromColumns(TransactionColumns columns, LocalDate today, InsightMetrics metrics) {
+        List<Insight> insights = new ArrayList<>();
+        insightsFromColumns(columns, today, producers, Runnable::run, (type, insight) -> insights.add(insight),
+                metrics);
+        return insights;
+    }
+
+    /**
+     * Same insights from the customer's {@link TransactionColumns}. The rows are in date order and the months each
+     * producer reads are a run of days, so its rows are found by binary search instead of testing every row. The
+     * columns always hold the whole window, so asking for fewer types only skips producers.
+     */
+    private void insightsFromColumns(TransactionColumns columns, LocalDate today, List<IInsightProducer> producing,
+                                     Executor executor, BiConsumer<InsightType, Insight> insights,
+                                     InsightMetrics metrics) {
+        long windowStart = System.nanoTime();
+        Map<Long, int[]> rowsByMonthsBack = new HashMap<>();
+        for (IInsightProducer producer : producing) {
+            rowsByMonthsBack.computeIfAbsent(producer.monthsBack(), months -> rowsFromThisMth(months, columns, today));
+        }
+        metrics.record(WINDOW, windowStart);
+        produce(producing, executor, (producer, sink) -> {
+            int[] rows = rowsByMonthsBack.get(producer.monthsBack());
+            producer.fromColumns(columns, rows[0], rows[1], sink);
+        }, insights, metrics);
+    }
+
+    /**
+     * Insights from one row per vendor, category and calendar month: the current month and the
+     * {@value #LAST_12_MONTHS} before it, summed by the database or read from the monthly rollups.
+     * Each month's total counts as one bill when tracking a vendor. These are calendar months, whereas working
+     * from transactions or columns counts months back from today with {@link #daysFromThisMth}, so the two only
+     * agree on the first of the month; on other days a transaction from late last month can count as this month
+     * there and not here.
+     */
+    private void insightsFromMonthlySpend(Long id, LocalDate today, List<IInsightProducer> producing,
+                                          BiConsumer<InsightType, Insight> insights) {
+        long fetchStart = System.nanoTime();
+        YearMonth firstMonth = YearMonth.from(today).minusMonths(monthsBack(producing));
+        int fromYearMonth = yearMonthOf(firstMonth.atDay(1));
+        List<MonthlySpend> monthlySpend = aggregation == ROLLUP
+                ? rollupRepository.findMonthlySpendByCustomerId(id, fromYearMonth, yearMonthOf(today))
+                : repository.findMonthlySpendByCustomerId(id, fromYearMonth, yearMonthOf(today));
+        metrics.record(FETCH, fetchStart);
+        metrics.rowsFetched(monthlySpend.size());
+        if (monthlySpend.isEmpty() && !repository.existsByCustomerId(id)) {
+            throw notFound(id);
+        }
+        insightsFromMonthlySpend(monthlySpend, today, producing, generatorExecutor, insights, metrics);
+    }
+
+    /**
+     * Whether insights are worked out from calendar-month totals, as the DATABASE and ROLLUP aggregations do,
+     * rather than from the days of the transactions.
+     */
+    boolean fromMonthlySpend() {
+        return aggregation == DATABASE || aggregation == ROLLUP;
+    }
+
+    Map<Long, List<MonthlySpend>> monthlySpendByIds(Collection<Long> ids, LocalDate today) {
+        int fromYearMonth = yearMonthOf(YearMonth.from(today).minusMonths(LAST_12_MONTHS).atDay(1));
+        List<MonthlySpend> monthlySpend = aggregation == ROLLUP
+                ? rollupRepository.findMonthlySpendByCustomerIdIn(ids, fromYearMonth, yearMonthOf(today))
+                : repository.findMonthlySpendByCustomerIdIn(ids, fromYearMonth, yearMonthOf(today));
+        return monthlySpend.stream()
+                .collect(groupingBy(MonthlySpend::getCustomerId));
+    }
+
+    private List<Insight> insightsFromMonthlySpend(List<MonthlySpend> monthlySpend, LocalDate today) {
+        return insightsFromMonthlySpend(monthlySpend, today, metrics);
+    }
+
+    /**
+     * The customer's insights from their monthly spend, recorded in {@code metrics} rather than the request metrics.
+     */
+    List<Insight> insightsFromMonthlySpend(List<MonthlySpend> monthlySpend, LocalDate today, InsightMetrics metrics) {
+        List<Insight> insights = new ArrayList<>();
+        insightsFromMonthlySpend(monthlySpend, today, producers, Runnable::run,
+                (type, insight) -> insights.add(insight), metrics);
+        return insights;
+    }
+
+    private void insightsFromMonthlySpend(List<MonthlySpend> monthlySpend, LocalDate today,
+                                          List<IInsightProducer> producing, Executor executor,
+                                          BiConsumer<InsightType, Insight> insights, InsightMetrics metrics) {
+        long windowStart = System.nanoTime();
+        YearMonth thisMonth = YearMonth.from(today);
+        Map<Long, List<MonthlySpend>> spendByMonthsBack = new HashMap<>();
+        for (IInsightProducer producer : producing) {
+            spendByMonthsBack.computeIfAbsent(producer.monthsBack(), months -> monthlySpend.stream()
+                    .filter(spend -> {
+                        YearMonth month = YearMonth.of(spend.getYear(), spend.getMonth());
+                        return !month.isBefore(thisMonth.minusMonths(months)) && !month.isAfter(thisMonth);
+                    })
+                    .collect(toList()));
+        }
+        metrics.record(WINDOW, windowStart);
+        produce(producing, executor, (producer, sink) ->
+                producer.fromMonthlySpend(spendByMonthsBack.get(producer.monthsBack()), sink), insights, metrics);
+    }
+
+    /**
+     * Runs each producer on its part of the window, timing it and counting its insights by type in
+     * {@code metrics}. The first runs on this thread and hands its insights straight on; the rest are given to
+     * {@code executor} at once, their insights kept until the first is done and then handed on in producer order.
+     * A producer's failure is rethrown here as it was thrown.
+     */
+    private void produce(List<IInsightProducer> producing, Executor executor,
+                         BiConsumer<IInsightProducer, BiConsumer<InsightType, Insight>> production,
+                         BiConsumer<InsightType, Insight> insights, InsightMetrics metrics) {
+        if (producing.isEmpty()) {
+            return;
+        }
+        BiConsumer<InsightType, Insight> counted = (type, insight) -> {
+            metrics.produced(type);
+            insights.accept(type, insight);
+        };
+        List<CompletableFuture<List<Map.Entry<InsightType, Insight>>>> others = new ArrayList<>();
+        for (IInsightProducer producer : producing.subList(1, producing.size())) {
+            others.add(supplyAsync(() -> {
+                List<Map.Entry<InsightType, Insight>> produced = new ArrayList<>();
+                produce(producer, production,
+                        (type, insight) -> produced.add(new SimpleImmutableEntry<>(type, insight)), metrics);
+                return produced;
+            }, executor));
+        }
+        produce(producing.get(0), production, counted, metrics);
+        for (CompletableFuture<List<Map.Entry<InsightType, Insight>>> other : others) {
+            join(other).forEach(produced -> counted.accept(produced.getKey(), produced.getValue()));
+        }
+    }
+
+    /**
+     * Runs the producer, timing it without the time {@code insights} takes to take each insight, which when
+     * streaming is the time spent writing it out and is recorded as serialisation instead.
+     */
+    private void produce(IInsightProducer producer,
+                         BiConsumer<IInsightProducer, BiConsumer<InsightType, Insight>> production,
+                         BiConsumer<InsightType, Insight> insights, InsightMetrics metrics) {
+        long start = System.nanoTime();
+        long[] handingOnNanos = new long[1];
+        production.accept(producer, (type, insight) -> {
+            long handOff = System.nanoTime();
+            insights.accept(type, insight);
+            handingOnNanos[0] += System.nanoTime() - handOff;
+        });
+        metrics.recordNanos(producer, System.nanoTime() - start - handingOnNanos[0]);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The producers handing out at least one of the given types, in order.
+     */
+    private List<IInsightProducer> producersOf(Set<InsightType> types) {
+        return producers.stream()
+                .filter(producer -> producer.types().stream().anyMatch(types::contains))
                 .collect(toList());
     }
 
-    private List<Insight> spendByCategoryInsight(List<Transactions> transactions) {
-        spendByCategory = new SpendByCategory();
-        List<Transactions> transactionsFromThisMth = getTransactionsFromThisMth(CURRENT_MONTH, transactions);
-        return spendByCategory.spendByCategoryInsight(transactionsFromThisMth);
+    /**
+     * How many months before this one the given producers read between them.
+     */
+    private static long monthsBack(List<IInsightProducer> producing) {
+        return producing.stream().mapToLong(IInsightProducer::monthsBack).max().orElse(CURRENT_MONTH);
+    }
+
+    private TransactionNotFoundException notFound(Long id) {
+        metrics.transactionNotFound();
+        return new TransactionNotFoundException(id);
     }
 
-    private List<Insight> billTrackingInsight(List<Transactions> transactions) {
-        billTracking = new BillTracking(cInsight);
-        Map<String, List<Transactions>> transactionByVendor =
-                groupByVendor(getTransactionsFromThisMth(LAST_12_MONTHS, transactions));
-        return billTracking.billTrackingInsight(transactionByVendor);
+    /**
+     * The rows, from (inclusive) and to (exclusive), dated on a day {@link #daysFromThisMth} accepts.
+     */
+    private static int[] rowsFromThisMth(long noOfMthsBack, TransactionColumns columns, LocalDate today) {
+        int[] days = daysFromThisMth(noOfMthsBack, today);
+        return new int[]{columns.firstRowOnOrAfter(days[0]), columns.firstRowOnOrAfter(days[1])};
+    }
+
+    /**
+     * The epoch days, from (inclusive) and to (exclusive), of transactions counted as from the last
+     * {@code noOfMthsBack} months: those between none and {@code noOfMthsBack + 1} whole months before a month
+     * from today. The months between a date and a fixed day only fall as the date gets later, so the days counted
+     * are one unbroken run inside {@link #windowStart} to {@link #windowEnd}, and its ends are found by bisecting
+     * that range. Filtering a transaction is then two integer comparisons.
+     */
+    static int[] daysFromThisMth(long noOfMthsBack, LocalDate today) {
+        LocalDate plusOneMonth = today.plusMonths(1);
+        int start = (int) windowStart(noOfMthsBack, today).toEpochDay();
+        int end = (int) windowEnd(today).toEpochDay();
+        // first day not too far back, then the first day after that which is too far ahead
+        int from = firstDay(start, end, day -> MONTHS.between(LocalDate.ofEpochDay(day), plusOneMonth) <= noOfMthsBack + 1);
+        int to = firstDay(from, end, day -> MONTHS.between(LocalDate.ofEpochDay(day), plusOneMonth) < 0);
+        return new int[]{from, to};
+    }
+
+    /**
+     * The first day from {@code start} to {@code end} (exclusive) that passes the test, or {@code end} if none
+     * does, given that once a day passes every later day does too.
+     */
+    private static int firstDay(int start, int end, IntPredicate test) {
+        int low = start;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (test.test(mid)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
     }
 
-    private Map<String, List<Transactions>> groupByVendor(List<Transactions> transactions) {
-        return transactions.stream().collect(groupingBy(Transactions::getVendor));
+    /**
+     * First day of the earliest month holding a transaction {@link #daysFromThisMth} can accept, so the
+     * database only reads rows the window may keep.
+     */
+    static LocalDate windowStart(long noOfMthsBack, LocalDate today) {
+        return today.minusMonths(noOfMthsBack + 1).withDayOfMonth(1);
     }
 
-    private List<Transactions> getTransactionsFromThisMth(long noOfMthsBack, List<Transactions> transactions) {
-        return transactions.stream()
-                .filter(transact -> {
-                    long noOfMths = MONTHS.between(transact.getDate(), LocalDate.now().plusMonths(1));
-                    return noOfMths >= 0 && noOfMths <= noOfMthsBack + 1;
-                }).collect(toList());
+    /**
+     * First day of the month after the latest month holding a transaction {@link #daysFromThisMth} can accept.
+     */
+    static LocalDate windowEnd(LocalDate today) {
+        return today.plusMonths(3).withDayOfMonth(1);
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,18 @@
 package com.nationwide.insights.service;
 
 import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.MonthlySpend;
 import com.nationwide.insights.domain.transactions.Transactions;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 public interface IBillTracking {
+    List<Insight> billTrackingInsight(List<Transactions> transactions);
     List<Insight> billTrackingInsight(Map<String, List<Transactions>> transactionByVendor);
+    List<Insight> monthlyBillTrackingInsight(List<MonthlySpend> monthlySpend);
+    void billTrackingInsight(List<Transactions> transactions, BiConsumer<InsightType, Insight> insights);
+    void monthlyBillTrackingInsight(List<MonthlySpend> monthlySpend, BiConsumer<InsightType, Insight> insights);
+    void billTrackingInsight(TransactionColumns columns, int fromRow, int toRow, BiConsumer<InsightType, Insight> insights);
 }
@@ -3,7 +3,19 @@ package com.nationwide.insights.service;
 import java.math.BigDecimal;
 
 public interface ICustomerInsight {
-    void setSpendByCategory(BigDecimal amount);
-    void generateHigherSpend(BigDecimal more);
-    void generateLowerSpend(BigDecimal less);
+    void setSpendByCategory(long amountInPence);
+    void generateHigherSpend(long moreInPence);
+    void generateLowerSpend(long lessInPence);
+
+    default void setSpendByCategory(BigDecimal amount) {
+        setSpendByCategory(Pence.of(amount));
+    }
+
+    default void generateHigherSpend(BigDecimal more) {
+        generateHigherSpend(Pence.of(more));
+    }
+
+    default void generateLowerSpend(BigDecimal less) {
+        generateLowerSpend(Pence.of(less));
+    }
 }
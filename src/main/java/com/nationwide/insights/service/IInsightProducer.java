@@ -0,0 +1,45 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.MonthlySpend;
+import com.nationwide.insights.domain.transactions.Transactions;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * One kind of insight the {@link CustomerInsightsService} works out for a customer. Producers are Spring beans,
+ * picked up by the service in {@link org.springframework.core.annotation.Order} order: each declares the types it
+ * hands out and how many months it reads, and is given its window in whichever form
+ * {@code insights.aggregation} reads transactions in, already cut down to those months. The service reads the
+ * longest window any requested producer needs once, runs the producers concurrently and hands their insights on in
+ * producer order, so a producer may be called from any thread and must not keep state between calls.
+ */
+public interface IInsightProducer {
+
+    /**
+     * The types this producer hands out; it only runs when one of them is requested.
+     */
+    Set<InsightType> types();
+
+    /**
+     * How many months before the current one this producer reads, from
+     * {@link CustomerInsightsService#CURRENT_MONTH} to {@link CustomerInsightsService#LAST_12_MONTHS}.
+     */
+    long monthsBack();
+
+    /**
+     * The {@code stage} tag of the {@code insights.stage} timer recording this producer.
+     */
+    String stage();
+
+    void fromTransactions(List<Transactions> transactions, BiConsumer<InsightType, Insight> insights);
+
+    void fromColumns(TransactionColumns columns, int fromRow, int toRow, BiConsumer<InsightType, Insight> insights);
+
+    /**
+     * Insights from one row per vendor, category and calendar month, each month's total counting as one transaction.
+     */
+    void fromMonthlySpend(List<MonthlySpend> monthlySpend, BiConsumer<InsightType, Insight> insights);
+}
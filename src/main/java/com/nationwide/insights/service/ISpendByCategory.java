@@ -1,10 +1,19 @@
 package com.nationwide.insights.service;
 
 import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.MonthlySpend;
 import com.nationwide.insights.domain.transactions.Transactions;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 public interface ISpendByCategory {
     List<Insight> spendByCategoryInsight(List<Transactions> transactions);
+    List<Insight> spendByCategoryInsight(Map<String, BigDecimal> spendByCategory);
+    List<Insight> monthlySpendByCategoryInsight(List<MonthlySpend> monthlySpend);
+    void spendByCategoryInsight(List<Transactions> transactions, BiConsumer<InsightType, Insight> insights);
+    void monthlySpendByCategoryInsight(List<MonthlySpend> monthlySpend, BiConsumer<InsightType, Insight> insights);
+    void spendByCategoryInsight(TransactionColumns columns, int fromRow, int toRow, BiConsumer<InsightType, Insight> insights);
 }
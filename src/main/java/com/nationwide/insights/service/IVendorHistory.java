@@ -0,0 +1,37 @@
+package com.nationwide.insights.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.OptionalLong;
+
+/**
+ * One vendor's spend, accumulated in a single pass into the latest entry and the {@link BillBaseline} of the
+ * entries before it. Entries are either single transactions or monthly totals, in any order.
+ */
+interface IVendorHistory {
+
+    default void add(LocalDate date, BigDecimal amount, String category) {
+        add((int) date.toEpochDay(), Pence.of(amount), Pence.scaleOf(amount), category);
+    }
+
+    /**
+     * Adds an entry dated {@code epochDay} of {@code amountInPence}, given in {@code scale} decimal places. The first
+     * entry on the latest day stays the latest; later ones on that day count towards the baseline.
+     */
+    void add(int epochDay, long amountInPence, int scale, String category);
+
+    String getVendor();
+
+    String getLatestCategory();
+
+    LocalDate getLatestDate();
+
+    int getLatestEpochDay();
+
+    long getLatestAmount();
+
+    /**
+     * The amount previous months are compared against, in pence. Empty when there is nothing before the latest entry.
+     */
+    OptionalLong baseline();
+}
@@ -0,0 +1,15 @@
+package com.nationwide.insights.service;
+
+/**
+ * Where the sums behind bill tracking and spend by category are worked out.
+ * TRANSACTIONS streams the raw rows and adds them up in the service;
+ * DATABASE asks the database for one total per vendor, category and calendar month;
+ * ROLLUP reads those totals from CUSTOMER_MONTHLY_ROLLUP, kept up to date as transactions are written;
+ * COLUMNAR adds up the raw rows held in memory as {@link TransactionColumns} by the {@link TransactionColumnStore}.
+ */
+public enum InsightAggregation {
+    TRANSACTIONS,
+    DATABASE,
+    ROLLUP,
+    COLUMNAR
+}
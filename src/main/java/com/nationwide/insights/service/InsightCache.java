@@ -0,0 +1,179 @@
+package com.nationwide.insights.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.TransactionsChangedEvent;
+import com.nationwide.insights.domain.transactions.TransactionsVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A customer's insights as of a day, kept until the end of that day, since "this month" and "the last 12 months"
+ * are counted back from today and move on every day, or until one of the customer's transactions is written.
+ * Each entry keeps the {@link TransactionsVersion} it was worked out at, so insights are never served with the ETag
+ * of a later version.
+ * Holds at most {@code insights.cache.maximum-size} customers, evicting the least used. Hit, miss and eviction
+ * counts are exposed over JMX and as the {@code cache.*} meters tagged {@code cache=insights}.
+ */
+@Component
+@ManagedResource(objectName = "com.nationwide.insights:name=insightCache")
+public class InsightCache {
+    private final Cache<CustomerDay, VersionedInsights> insightsById;
+    private final Clock clock;
+
+    @Autowired
+    public InsightCache(@Value("${insights.cache.maximum-size:10000}") long maximumSize, MeterRegistry registry,
+                        Clock clock) {
+        this.clock = clock;
+        this.insightsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilNextDay<>(clock))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, insightsById, "insights");
+    }
+
+    /**
+     * The cached insights as of {@code day}, or those worked out by {@code insightsById} and cached with the
+     * customer's {@code version}, read before them. Concurrent misses on one id and day share a single load, and an
+     * exception from the load is thrown without caching anything. Insights as of a day already over are never
+     * kept. Insights cached at another version, such as those left between a write's commit and their
+     * invalidation, are worked out again and replace them rather than being served.
+     */
+    public List<Insight> get(Long id, LocalDate day, TransactionsVersion version,
+                             Function<Long, List<Insight>> insightsById) {
+        CustomerDay key = new CustomerDay(id, day);
+        VersionedInsights cached = this.insightsById.get(key,
+                customerDay -> new VersionedInsights(version, insightsById.apply(customerDay.id)));
+        if (cached.isOf(version)) {
+            return cached.insights;
+        }
+        VersionedInsights current = new VersionedInsights(version, insightsById.apply(id));
+        this.insightsById.asMap().replace(key, cached, current);
+        return current.insights;
+    }
+
+    /**
+     * Drops the customer's insights once the write commits. A load still reading the old rows finishes before
+     * the entry is removed, so stale insights are never left behind.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidate(TransactionsChangedEvent event) {
+        // insights as of an earlier day have already expired
+        insightsById.invalidate(new CustomerDay(event.getCustomerId(), LocalDate.now(clock)));
+    }
+
+    @ManagedAttribute(description = "Requests answered from the cache")
+    public long getHitCount() {
+        return insightsById.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Requests that worked insights out")
+    public long getMissCount() {
+        return insightsById.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Customers evicted to stay within the maximum size")
+    public long getEvictionCount() {
+        return insightsById.stats().evictionCount();
+    }
+
+    @ManagedAttribute(description = "Customers currently cached")
+    public long getSize() {
+        return insightsById.estimatedSize();
+    }
+
+    /**
+     * The time from {@code now} until the start of the day after {@code day}, or zero once that has passed.
+     */
+    static Duration untilEndOf(LocalDate day, ZonedDateTime now) {
+        Duration remaining = Duration.between(now, day.plusDays(1).atStartOfDay(now.getZone()));
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    static final class CustomerDay {
+        private final Long id;
+        private final LocalDate day;
+
+        CustomerDay(Long id, LocalDate day) {
+            this.id = id;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CustomerDay)) {
+                return false;
+            }
+            CustomerDay that = (CustomerDay) o;
+            return id.equals(that.id) && day.equals(that.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, day);
+        }
+    }
+
+    private static final class VersionedInsights {
+        private final Long count;
+        private final Long maxId;
+        private final List<Insight> insights;
+
+        VersionedInsights(TransactionsVersion version, List<Insight> insights) {
+            this.count = version.getCount();
+            this.maxId = version.getMaxId();
+            this.insights = insights;
+        }
+
+        boolean isOf(TransactionsVersion version) {
+            return Objects.equals(count, version.getCount()) && Objects.equals(maxId, version.getMaxId());
+        }
+    }
+
+    /**
+     * Expires an entry at the start of the day after the one its insights were worked out as of, even if the load
+     * finished after midnight; reads don't extend it.
+     */
+    static class UntilNextDay<V> implements Expiry<CustomerDay, V> {
+        private final Clock clock;
+
+        UntilNextDay(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(CustomerDay key, V value, long currentTime) {
+            return untilEndOf(key.day, ZonedDateTime.now(clock)).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(CustomerDay key, V value, long currentTime, long currentDuration) {
+            return untilEndOf(key.day, ZonedDateTime.now(clock)).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(CustomerDay key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.TransactionsChangedEvent;
+import com.nationwide.insights.domain.transactions.TransactionsVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent requests for the same customer, day and insight types share one computation: the first caller
+ * works the insights out on its own thread and every caller arriving before it finishes waits for that result
+ * instead of reading the transactions again. Only callers that read the same {@link TransactionsVersion} share one,
+ * so a caller never gets insights worked out before a write its ETag already counts. Nothing is kept once the computation ends, so this only absorbs
+ * bursts, such as the widgets of one screen asking at once; keeping results is the {@link InsightCache}'s job.
+ * Joined requests are counted as {@code insights.coalesced}.
+ */
+@Component
+@ManagedResource(objectName = "com.nationwide.insights:name=insightCoalescer")
+public class InsightCoalescer {
+    private final ConcurrentMap<Key, CompletableFuture<List<Insight>>> inFlight = new ConcurrentHashMap<>();
+    private final InsightMetrics metrics;
+
+    @Autowired
+    public InsightCoalescer(InsightMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * The insights worked out by {@code insights}, or by the call already in flight for the same customer, day,
+     * types and {@code version}, the customer's version read before the call. An exception from the computation,
+     * such as a customer without transactions, is thrown to every caller sharing it.
+     */
+    public List<Insight> get(Long id, LocalDate asOf, Set<InsightType> types, TransactionsVersion version,
+                             Supplier<List<Insight>> insights) {
+        Key key = new Key(id, asOf, types, version);
+        CompletableFuture<List<Insight>> mine = new CompletableFuture<>();
+        CompletableFuture<List<Insight>> theirs = inFlight.putIfAbsent(key, mine);
+        if (theirs != null) {
+            metrics.coalesced();
+            return join(theirs);
+        }
+        try {
+            mine.complete(insights.get());
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return mine.join();
+    }
+
+    /**
+     * Stops requests arriving after one of the customer's transactions is written from joining a computation that
+     * may have read the rows before it; the computation itself still finishes for the callers already waiting.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidate(TransactionsChangedEvent event) {
+        inFlight.keySet().removeIf(key -> key.id.equals(event.getCustomerId()));
+    }
+
+    @ManagedAttribute(description = "Computations currently in flight")
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private static List<Insight> join(CompletableFuture<List<Insight>> insights) {
+        try {
+            return insights.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Key {
+        private final Long id;
+        private final LocalDate asOf;
+        private final Set<InsightType> types;
+        private final Long count;
+        private final Long maxId;
+
+        private Key(Long id, LocalDate asOf, Set<InsightType> types, TransactionsVersion version) {
+            this.id = id;
+            this.asOf = asOf;
+            this.types = types;
+            this.count = version.getCount();
+            this.maxId = version.getMaxId();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return id.equals(key.id) && asOf.equals(key.asOf) && types.equals(key.types)
+                    && Objects.equals(count, key.count) && Objects.equals(maxId, key.maxId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, asOf, types, count, maxId);
+        }
+    }
+}
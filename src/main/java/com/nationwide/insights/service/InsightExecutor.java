@@ -0,0 +1,152 @@
+package com.nationwide.insights.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Runs single-customer insight requests off the servlet threads when {@code insights.async.enabled} is set, so a
+ * few heavy customers can't hold every connector thread. The queue is bounded: once it is full a request is
+ * rejected straight away with a {@link RejectedExecutionException} rather than waiting.
+ * <p>
+ * Queue depth and wait time are exposed over JMX and as the {@code insights.async.*} meters, with the time and CPU
+ * time tasks take to run. A long wait with a high CPU share means the threads are busy computing; a low CPU share
+ * means they are mostly waiting on the database.
+ */
+@Component
+@ManagedResource(objectName = "com.nationwide.insights:name=insightExecutor")
+public class InsightExecutor implements Executor {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+    private final ThreadPoolExecutor executor;
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+    private final Counter rejected;
+    private final Timer queueWait;
+    private final Timer runTime;
+    private final Timer cpuTime;
+
+    @Autowired
+    public InsightExecutor(@Value("${insights.async.threads:8}") int threads,
+                           @Value("${insights.async.queue-capacity:100}") int queueCapacity,
+                           MeterRegistry registry) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("insights-request-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("insights.async.queue", executor, pool -> pool.getQueue().size())
+                .description("Requests waiting for an async insight thread")
+                .register(registry);
+        Gauge.builder("insights.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Async insight threads running a request")
+                .register(registry);
+        this.rejected = Counter.builder("insights.async.rejected")
+                .description("Requests rejected with 503 because the async insight queue was full")
+                .register(registry);
+        this.queueWait = Timer.builder("insights.async.wait")
+                .description("Time a request waited in the queue for an async insight thread")
+                .register(registry);
+        this.runTime = Timer.builder("insights.async.run")
+                .description("Time a request took to run once it had an async insight thread")
+                .register(registry);
+        this.cpuTime = Timer.builder("insights.async.cpu")
+                .description("CPU time a request took on its async insight thread")
+                .register(registry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> run(task, queuedAt));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task, long queuedAt) {
+        long startedAt = System.nanoTime();
+        long waited = startedAt - queuedAt;
+        queueWait.record(waited, NANOSECONDS);
+        maxWaitNanos.accumulate(waited);
+        long cpuAtStart = CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0L;
+        try {
+            task.run();
+        } finally {
+            runTime.record(System.nanoTime() - startedAt, NANOSECONDS);
+            if (CPU_TIME) {
+                cpuTime.record(THREADS.getCurrentThreadCpuTime() - cpuAtStart, NANOSECONDS);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @ManagedAttribute(description = "Requests waiting for a thread")
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Requests that can wait before new ones are rejected")
+    public int getQueueRemainingCapacity() {
+        return executor.getQueue().remainingCapacity();
+    }
+
+    @ManagedAttribute(description = "Threads running a request")
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @ManagedAttribute(description = "Requests rejected with 503 because the queue was full")
+    public long getRejectedCount() {
+        return (long) rejected.count();
+    }
+
+    @ManagedAttribute(description = "Requests run to completion or failure")
+    public long getCompletedCount() {
+        return runTime.count();
+    }
+
+    @ManagedAttribute(description = "Mean time a request waited in the queue, in milliseconds")
+    public double getMeanWaitMillis() {
+        return queueWait.mean(MILLISECONDS);
+    }
+
+    @ManagedAttribute(description = "Longest time a request waited in the queue, in milliseconds")
+    public long getMaxWaitMillis() {
+        return NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    @ManagedAttribute(description = "Mean time a request took to run once it had a thread, in milliseconds")
+    public double getMeanRunMillis() {
+        return runTime.mean(MILLISECONDS);
+    }
+
+    @ManagedAttribute(description = "CPU time as a share of run time: near 1 is CPU-bound, near 0 is waiting on the database")
+    public double getCpuShare() {
+        double running = runTime.totalTime(NANOSECONDS);
+        return running == 0.0 ? 0.0 : cpuTime.totalTime(NANOSECONDS) / running;
+    }
+}
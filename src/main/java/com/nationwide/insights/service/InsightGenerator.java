@@ -0,0 +1,21 @@
+package com.nationwide.insights.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares a vendor's latest spend with what it spent before. Holds no state, so one instance is shared by
+ * every request.
+ */
+@Component
+public class InsightGenerator implements IGenerateInsight {
+
+    @Override
+    public CustomerInsight generateInsightFrom(CustomerInsight recent, CustomerInsight past) {
+        if (recent.getAmountInPence() > past.getAmountInPence()) {
+            recent.generateHigherSpend(recent.getAmountInPence() - past.getAmountInPence());
+        } else if (recent.getAmountInPence() < past.getAmountInPence()) {
+            recent.generateLowerSpend(past.getAmountInPence() - recent.getAmountInPence());
+        }
+        return recent;
+    }
+}
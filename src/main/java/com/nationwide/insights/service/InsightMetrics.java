@@ -0,0 +1,130 @@
+package com.nationwide.insights.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Micrometer meters for the insight pipeline, registered once so recording is a map lookup:
+ * <ul>
+ *     <li>{@code insights.stage}, a timer per {@link Stage} and per {@link IInsightProducer#stage()}</li>
+ *     <li>{@code insights.fetch.rows}, the rows each repository fetch returned</li>
+ *     <li>{@code insights.produced}, insights worked out, by {@link InsightType}</li>
+ *     <li>{@code insights.transactions.not-found}, customers without transactions</li>
+ *     <li>{@code insights.not-modified}, requests answered 304 Not Modified from their ETag</li>
+ *     <li>{@code insights.coalesced}, requests that shared a computation already in flight</li>
+ * </ul>
+ * Percentiles and histograms are switched on per meter under {@code management.metrics.distribution}.
+ */
+@Component
+public class InsightMetrics {
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Map<String, Timer> producerStages = new ConcurrentHashMap<>();
+    private final Map<InsightType, Counter> produced = new EnumMap<>(InsightType.class);
+    private final DistributionSummary fetchedRows;
+    private final Counter notFound;
+    private final Counter notModified;
+    private final Counter coalesced;
+
+    public enum Stage {
+        FETCH("fetch"),
+        WINDOW("window"),
+        SERIALISATION("serialisation");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    @Autowired
+    public InsightMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, stageTimer(stage.tag));
+        }
+        for (InsightType type : InsightType.values()) {
+            produced.put(type, Counter.builder("insights.produced")
+                    .description("Insights worked out")
+                    .tag("type", type.name())
+                    .register(registry));
+        }
+        this.fetchedRows = DistributionSummary.builder("insights.fetch.rows")
+                .description("Rows returned by a customer's repository fetch")
+                .register(registry);
+        this.notFound = Counter.builder("insights.transactions.not-found")
+                .description("Requests for a customer without transactions")
+                .register(registry);
+        this.notModified = Counter.builder("insights.not-modified")
+                .description("Requests answered 304 Not Modified because the insights' ETag matched")
+                .register(registry);
+        this.coalesced = Counter.builder("insights.coalesced")
+                .description("Requests that waited for the same customer's insights already being worked out")
+                .register(registry);
+    }
+
+    /**
+     * Meters registered nowhere, for work that is not a request, such as the nightly precompute job, so it
+     * doesn't swamp the request meters. A composite registry without registries records nothing.
+     */
+    public static InsightMetrics unrecorded() {
+        return new InsightMetrics(new CompositeMeterRegistry());
+    }
+
+    /**
+     * Records the time since {@code startNanos}, a {@link System#nanoTime()} reading.
+     */
+    public void record(Stage stage, long startNanos) {
+        recordNanos(stage, System.nanoTime() - startNanos);
+    }
+
+    public void recordNanos(Stage stage, long nanos) {
+        stages.get(stage).record(nanos, NANOSECONDS);
+    }
+
+    /**
+     * Records {@code nanos} under the producer's own stage, registered the first time it runs.
+     */
+    public void recordNanos(IInsightProducer producer, long nanos) {
+        producerStages.computeIfAbsent(producer.stage(), this::stageTimer).record(nanos, NANOSECONDS);
+    }
+
+    private Timer stageTimer(String tag) {
+        return Timer.builder("insights.stage")
+                .description("Time spent in one stage of working out a customer's insights")
+                .tag("stage", tag)
+                .register(registry);
+    }
+
+    public void rowsFetched(int rows) {
+        fetchedRows.record(rows);
+    }
+
+    public void produced(InsightType type) {
+        produced.get(type).increment();
+    }
+
+    public void transactionNotFound() {
+        notFound.increment();
+    }
+
+    public void notModified() {
+        notModified.increment();
+    }
+
+    public void coalesced() {
+        coalesced.increment();
+    }
+}
@@ -0,0 +1,173 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.domain.insights.PrecomputedInsights;
+import com.nationwide.insights.domain.insights.PrecomputedInsightsRepository;
+import com.nationwide.insights.domain.transactions.MonthlySpend;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.TransactionsVersion;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.nationwide.insights.service.CustomerInsightsService.LAST_12_MONTHS;
+import static com.nationwide.insights.service.CustomerInsightsService.windowEnd;
+import static com.nationwide.insights.service.CustomerInsightsService.windowStart;
+import static java.lang.String.format;
+import static java.lang.management.MemoryType.HEAP;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Works out every customer's insights as of one day and writes them to the INSIGHTS table, for a nightly job.
+ */
+@Service
+public class InsightPrecomputeService {
+    private static final Logger LOG = getLogger(InsightPrecomputeService.class.getCanonicalName());
+    private static final long MB = 1024 * 1024;
+    private final CustomerRepository customerRepository;
+    private final TransactionRepository transactionRepository;
+    private final PrecomputedInsightsRepository precomputedRepository;
+    private final CustomerInsightsService insightsService;
+    private final PrecomputedInsightStore store;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactions;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int batchSize;
+    private final InsightMetrics unrecorded = InsightMetrics.unrecorded();
+
+    @Autowired
+    public InsightPrecomputeService(CustomerRepository customerRepository,
+                                    TransactionRepository transactionRepository,
+                                    PrecomputedInsightsRepository precomputedRepository,
+                                    CustomerInsightsService insightsService,
+                                    PrecomputedInsightStore store, EntityManager entityManager,
+                                    TransactionTemplate transactions,
+                                    @Value("${insights.precompute.chunk-size:500}") int chunkSize,
+                                    @Value("${insights.precompute.parallelism:0}") int parallelism,
+                                    @Value("${insights.ingest.batch-size:500}") int batchSize) {
+        this.customerRepository = customerRepository;
+        this.transactionRepository = transactionRepository;
+        this.precomputedRepository = precomputedRepository;
+        this.insightsService = insightsService;
+        this.store = store;
+        this.entityManager = entityManager;
+        this.transactions = transactions;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Pages through the customer ids {@code insights.precompute.chunk-size} at a time and precomputes each page
+     * in its own database transaction, so the job never holds more than one page and a failure only loses the
+     * page it happened in. Logs the customers per second and the peak heap, the sum of each heap pool's peak
+     * since the job started. Returns the number of customers read.
+     */
+    public int precomputeAll(LocalDate asOf) {
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        int customers = 0;
+        try {
+            Long after = 0L;
+            List<Long> ids;
+            while (!(ids = customerRepository.findIdsAfter(after, PageRequest.of(0, chunkSize))).isEmpty()) {
+                List<Long> chunk = ids;
+                int written = transactions.execute(status -> precompute(chunk, asOf, pool));
+                customers += chunk.size();
+                after = chunk.get(chunk.size() - 1);
+                LOG.debug("precomputed insights for {} of {} customers up to id {}", written, chunk.size(), after);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        LOG.info("Precomputed insights as of {} for {} customers in {} s: {} customers/s, peak heap {} MB",
+                asOf, customers, format("%.1f", seconds), Math.round(customers / seconds), peakHeap() / MB);
+        return customers;
+    }
+
+    /**
+     * Reads the versions, then the windows, of the page's customers. Their insights are worked out on the
+     * fork-join pool, which splits the customers between its threads, without touching the request metrics, and
+     * the page's rows are replaced in JDBC batches. Versions are read first, so a transaction written meanwhile
+     * leaves the row looking older than it is and it is worked out again on request.
+     */
+    private int precompute(List<Long> ids, LocalDate asOf, ForkJoinPool pool) {
+        Long first = ids.get(0);
+        Long last = ids.get(ids.size() - 1);
+        List<TransactionsVersion> versions = transactionRepository.findVersionsByCustomerIdBetween(first, last);
+        precomputedRepository.deleteByCustomerIdBetween(first, last);
+        Function<Long, List<Insight>> insightsById = insightsById(ids, asOf);
+        List<PrecomputedInsights> rows = pool.submit(() -> versions.parallelStream()
+                .map(version -> store.of(version, asOf, insightsById.apply(version.getCustomerId())))
+                .collect(toList()))
+                .join();
+        int written = 0;
+        for (PrecomputedInsights row : rows) {
+            entityManager.persist(row);
+            if (++written % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return written;
+    }
+
+    /**
+     * Reads the page's windows as {@code insights.aggregation} does, so a customer's stored insights are the ones
+     * they would be given on request: in DATABASE and ROLLUP modes the calendar-month totals of every customer in
+     * the page with one query, otherwise the rows over the range of ids through a forward-only cursor in customer
+     * order.
+     */
+    private Function<Long, List<Insight>> insightsById(List<Long> ids, LocalDate asOf) {
+        if (insightsService.fromMonthlySpend()) {
+            Map<Long, List<MonthlySpend>> monthlySpendById = insightsService.monthlySpendByIds(ids, asOf);
+            return id -> insightsService.insightsFromMonthlySpend(monthlySpendById.getOrDefault(id, emptyList()),
+                    asOf, unrecorded);
+        }
+        Map<Long, TransactionColumns> columnsById = columnsOf(ids.get(0), ids.get(ids.size() - 1), asOf);
+        return id -> insightsService.insightsFromColumns(columnsById.getOrDefault(id, TransactionColumns.EMPTY),
+                asOf, unrecorded);
+    }
+
+    private Map<Long, TransactionColumns> columnsOf(Long first, Long last, LocalDate asOf) {
+        Map<Long, TransactionColumns.Builder> builders = new HashMap<>();
+        try (Stream<Object[]> rows = transactionRepository.streamColumnsByCustomerIdBetweenAndDateRange(first, last,
+                windowStart(LAST_12_MONTHS, asOf), windowEnd(asOf))) {
+            rows.forEach(row -> builders.computeIfAbsent((Long) row[0], id -> new TransactionColumns.Builder())
+                    .add((LocalDate) row[1], (BigDecimal) row[2], (String) row[3], (String) row[4]));
+        }
+        Map<Long, TransactionColumns> columns = new HashMap<>();
+        builders.forEach((id, builder) -> columns.put(id, builder.build()));
+        return columns;
+    }
+
+    private static long peakHeap() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+}
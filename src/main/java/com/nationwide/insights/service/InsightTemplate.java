@@ -0,0 +1,95 @@
+package com.nationwide.insights.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.nationwide.insights.service.InsightType.BILL_TRACKING;
+import static com.nationwide.insights.service.InsightType.OUTGOINGS;
+import static com.nationwide.insights.service.InsightType.SPEND_BY_CATEGORY;
+
+/**
+ * The text of one {@link InsightType}, parsed once into literal text and the fields between it, so rendering an
+ * insight is a handful of appends to a per-thread {@link StringBuilder}. Fields are written {@code {vendor}},
+ * {@code {category}}, {@code {amount}} (whole pounds, rounded half up) and {@code {direction}}, and are matched
+ * whatever the default locale.
+ */
+final class InsightTemplate {
+    private static final int MAX_RETAINED_CAPACITY = 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+    private static final Map<InsightType, InsightTemplate> TEMPLATES = new EnumMap<>(InsightType.class);
+
+    static {
+        TEMPLATES.put(BILL_TRACKING, parse("Your latest {vendor} {category} is £{amount} {direction} than previous months"));
+        TEMPLATES.put(OUTGOINGS, parse("Your latest {category} spend in {vendor} is £{amount} {direction} than previous months"));
+        TEMPLATES.put(SPEND_BY_CATEGORY, parse("You've spent £{amount} in {category} this month"));
+    }
+
+    private enum Field {
+        VENDOR, CATEGORY, AMOUNT, DIRECTION
+    }
+
+    private final String[] literals;
+    private final Field[] fields;
+
+    private InsightTemplate(List<String> literals, List<Field> fields) {
+        this.literals = literals.toArray(new String[0]);
+        this.fields = fields.toArray(new Field[0]);
+    }
+
+    static InsightTemplate of(InsightType type) {
+        InsightTemplate template = TEMPLATES.get(type);
+        if (template == null) {
+            throw new IllegalArgumentException("No insight template for " + type);
+        }
+        return template;
+    }
+
+    static InsightTemplate parse(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Field> fields = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = pattern.indexOf('{', from)) >= 0) {
+            int close = pattern.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed field in insight template: " + pattern);
+            }
+            literals.add(pattern.substring(from, open));
+            fields.add(Field.valueOf(pattern.substring(open + 1, close).toUpperCase(Locale.ROOT)));
+            from = close + 1;
+        }
+        literals.add(pattern.substring(from));
+        return new InsightTemplate(literals, fields);
+    }
+
+    String render(String vendor, String category, long amountInPence, String direction) {
+        StringBuilder text = BUFFER.get();
+        text.setLength(0);
+        for (int i = 0; i < fields.length; i++) {
+            text.append(literals[i]);
+            switch (fields[i]) {
+                case VENDOR:
+                    text.append(vendor);
+                    break;
+                case CATEGORY:
+                    text.append(category);
+                    break;
+                case AMOUNT:
+                    text.append(Pence.roundToPounds(Math.abs(amountInPence)));
+                    break;
+                case DIRECTION:
+                    text.append(direction);
+                    break;
+            }
+        }
+        text.append(literals[fields.length]);
+        String rendered = text.toString();
+        if (text.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,32 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.transactions.MonthlyRollupRepository;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+@Service
+public class MonthlyRollupService {
+    private static final Logger LOG = getLogger(MonthlyRollupService.class.getCanonicalName());
+    private final MonthlyRollupRepository rollups;
+
+    @Autowired
+    public MonthlyRollupService(MonthlyRollupRepository rollups) {
+        this.rollups = rollups;
+    }
+
+    /**
+     * Recomputes every monthly rollup from TRANSACTIONS with one grouped insert, for backfills and for rows
+     * written outside Hibernate. Returns the number of rollup rows written.
+     */
+    @Transactional
+    public int rebuild() {
+        rollups.deleteAllInBatch();
+        int rows = rollups.insertAllFromTransactions();
+        LOG.info("Rebuilt {} monthly rollup rows from transactions", rows);
+        return rows;
+    }
+}
@@ -0,0 +1,84 @@
+package com.nationwide.insights.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether a producer aggregates a window on one thread or splits it across the
+ * {@code insightsAggregationPool}, a fork-join pool of its own so a large customer neither waits behind nor holds up
+ * the common pool's other users. Only windows of at least {@code insights.parallel.threshold-rows} rows are split,
+ * so smaller customers don't pay for forking and merging.
+ */
+@Component
+@ManagedResource(objectName = "com.nationwide.insights:name=parallelAggregation")
+public class ParallelAggregation {
+    /**
+     * Never splits, for producers built outside Spring.
+     */
+    public static final ParallelAggregation SEQUENTIAL = new ParallelAggregation(false, Integer.MAX_VALUE, null);
+    private final boolean enabled;
+    private final int thresholdRows;
+    private final ForkJoinPool pool;
+    private final LongAdder parallelWindows = new LongAdder();
+
+    /**
+     * @param thresholdRows rows from which a window is split. The default of 100,000 is not a measured crossover:
+     *                      {@code ParallelAggregationBenchmark} has only been run on one processor, where splitting
+     *                      never paid, so set it from a run on the production hardware before enabling splitting
+     */
+    @Autowired
+    public ParallelAggregation(@Value("${insights.parallel.enabled:false}") boolean enabled,
+                               @Value("${insights.parallel.threshold-rows:100000}") int thresholdRows,
+                               @Qualifier("insightsAggregationPool") ForkJoinPool pool) {
+        if (thresholdRows < 0) {
+            throw new IllegalArgumentException("Threshold rows must not be negative: " + thresholdRows);
+        }
+        this.enabled = enabled;
+        this.thresholdRows = thresholdRows;
+        this.pool = pool;
+    }
+
+    /**
+     * Whether a window of {@code rows} rows is split.
+     */
+    public boolean splits(int rows) {
+        return enabled && rows >= thresholdRows;
+    }
+
+    /**
+     * Runs {@code aggregation} on the pool and waits for it, so the parallel streams it opens fork there. An
+     * unchecked exception is rethrown as it was thrown.
+     */
+    public <T> T invoke(Callable<T> aggregation) {
+        parallelWindows.increment();
+        return pool.submit(aggregation).join();
+    }
+
+    @ManagedAttribute(description = "Rows from which a window is split across the pool")
+    public int getThresholdRows() {
+        return thresholdRows;
+    }
+
+    @ManagedAttribute(description = "Windows split across the pool")
+    public long getParallelWindows() {
+        return parallelWindows.sum();
+    }
+
+    @ManagedAttribute(description = "Threads of the pool")
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    @ManagedAttribute(description = "Tasks one pool thread took from another's queue")
+    public long getStealCount() {
+        return pool == null ? 0L : pool.getStealCount();
+    }
+}
@@ -0,0 +1,60 @@
+package com.nationwide.insights.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Money as a primitive {@code long} number of pence, so sums and comparisons on the insight path don't allocate.
+ * Amounts come in from {@code T_AMOUNT DECIMAL(…,2)} and are converted exactly at the edges with {@link #of} and
+ * {@link #toPounds}; anything finer than a penny is rejected rather than rounded.
+ */
+final class Pence {
+    static final int SCALE = 2;
+    private static final long[] PENCE_PER_UNIT = {100L, 10L, 1L};
+
+    private Pence() {
+    }
+
+    /**
+     * The amount in pence, exactly.
+     *
+     * @throws ArithmeticException if the amount has a fraction of a penny or does not fit in a {@code long}
+     */
+    static long of(BigDecimal pounds) {
+        return pounds.movePointRight(SCALE).longValueExact();
+    }
+
+    /**
+     * The number of decimal places the amount was given in, 0 to 2, which sets the rounding step of
+     * {@link #average}.
+     */
+    static int scaleOf(BigDecimal pounds) {
+        return Math.max(0, Math.min(SCALE, pounds.scale()));
+    }
+
+    static BigDecimal toPounds(long pence) {
+        return BigDecimal.valueOf(pence, SCALE);
+    }
+
+    /**
+     * Half of {@code a + b}, rounded towards positive infinity in steps of the given scale: whole pounds at scale 0,
+     * ten pence at 1 and pence at 2. The same result as {@code a.add(b).divide(2, CEILING)} on amounts of that scale.
+     */
+    static long average(long a, long b, int scale) {
+        long unit = PENCE_PER_UNIT[scale];
+        return -Math.floorDiv(-(a + b), 2 * unit) * unit;
+    }
+
+    /**
+     * {@code total} shared over {@code count}, rounded towards positive infinity to the penny as {@link #average} is.
+     */
+    static long mean(long total, long count) {
+        return -Math.floorDiv(-total, count);
+    }
+
+    /**
+     * Whole pounds, half a pound rounded away from zero, the way {@code %.0f} formats a {@link BigDecimal}.
+     */
+    static long roundToPounds(long pence) {
+        return pence < 0 ? -((-pence + 50L) / 100L) : (pence + 50L) / 100L;
+    }
+}
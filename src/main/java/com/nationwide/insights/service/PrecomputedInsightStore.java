@@ -0,0 +1,76 @@
+package com.nationwide.insights.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.insights.PrecomputedInsights;
+import com.nationwide.insights.domain.insights.PrecomputedInsightsRepository;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.TransactionsVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the insights written to the INSIGHTS table by {@link InsightPrecomputeService}. With
+ * {@code insights.precomputed.enabled=true} a customer's stored insights are served when they were worked out as
+ * of the day asked for and the customer's transactions have not changed since; otherwise nothing is read and the
+ * insights are worked out as usual.
+ */
+@Component
+public class PrecomputedInsightStore {
+    private static final TypeReference<List<Insight>> INSIGHTS = new TypeReference<List<Insight>>() {
+    };
+    private final PrecomputedInsightsRepository repository;
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    @Autowired
+    public PrecomputedInsightStore(PrecomputedInsightsRepository repository,
+                                   TransactionRepository transactionRepository, ObjectMapper objectMapper,
+                                   @Value("${insights.precomputed.enabled:false}") boolean enabled) {
+        this.repository = repository;
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * The customer's stored insights as of {@code asOf}, if they are still current. The stored row is read before
+     * the customer's version, so a transaction written in between makes the versions differ rather than serving
+     * insights that miss it.
+     */
+    public Optional<List<Insight>> find(Long id, LocalDate asOf) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return repository.findById(id)
+                .filter(stored -> stored.getAsOf().equals(asOf))
+                .filter(stored -> stored.isOf(transactionRepository.findVersionByCustomerId(id)))
+                .map(stored -> read(stored.getInsights()));
+    }
+
+    PrecomputedInsights of(TransactionsVersion version, LocalDate asOf, List<Insight> insights) {
+        try {
+            return new PrecomputedInsights(version.getCustomerId(), asOf, version.getCount(), version.getMaxId(),
+                    objectMapper.writeValueAsString(insights));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Insight> read(String insights) {
+        try {
+            return objectMapper.readValue(insights, INSIGHTS);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
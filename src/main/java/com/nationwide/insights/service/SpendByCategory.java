@@ -1,51 +1,247 @@
 package com.nationwide.insights.service;
 
 import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.MonthlySpend;
 import com.nationwide.insights.domain.transactions.Transactions;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
 
+import static com.nationwide.insights.service.CustomerInsightsService.CURRENT_MONTH;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Comparator.comparingInt;
 import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toUnmodifiableList;
 
-public class SpendByCategory implements ISpendByCategory, ITransform {
+@Component
+@Order(2)
+public class SpendByCategory implements ISpendByCategory, IInsightProducer {
     public static final String EXEMPT_FROM_SPENDING_CATEGORY = "bill";
+    private static final Set<InsightType> TYPES = unmodifiableSet(EnumSet.of(InsightType.SPEND_BY_CATEGORY));
+    private final ParallelAggregation parallel;
+
+    public SpendByCategory() {
+        this(ParallelAggregation.SEQUENTIAL);
+    }
+
+    /**
+     * @param parallel whether a window is large enough to split between threads
+     */
+    @Autowired
+    public SpendByCategory(ParallelAggregation parallel) {
+        this.parallel = parallel;
+    }
+
+    @Override
+    public Set<InsightType> types() {
+        return TYPES;
+    }
+
+    @Override
+    public long monthsBack() {
+        return CURRENT_MONTH;
+    }
+
+    @Override
+    public String stage() {
+        return "spend-by-category";
+    }
+
+    @Override
+    public void fromTransactions(List<Transactions> transactions, BiConsumer<InsightType, Insight> insights) {
+        spendByCategoryInsight(transactions, insights);
+    }
+
+    @Override
+    public void fromColumns(TransactionColumns columns, int fromRow, int toRow,
+                            BiConsumer<InsightType, Insight> insights) {
+        spendByCategoryInsight(columns, fromRow, toRow, insights);
+    }
+
+    @Override
+    public void fromMonthlySpend(List<MonthlySpend> monthlySpend, BiConsumer<InsightType, Insight> insights) {
+        monthlySpendByCategoryInsight(monthlySpend, insights);
+    }
 
     @Override
     public List<Insight> spendByCategoryInsight(List<Transactions> transactions) {
-//        return getTransactionsFromThisMth(CURRENT_MONTH, transactions)
-        return transactions.stream().collect(groupingBy(Transactions::getCategory)).entrySet().stream()
+        List<Insight> insights = new ArrayList<>();
+        spendByCategoryInsight(transactions, (type, insight) -> insights.add(insight));
+        return unmodifiableList(insights);
+    }
+
+    @Override
+    public void spendByCategoryInsight(List<Transactions> transactions, BiConsumer<InsightType, Insight> insights) {
+        if (parallel.splits(transactions.size())) {
+            insightsFromTotals(parallelSpendByCategory(transactions), insights);
+            return;
+        }
+        Map<String, long[]> spendByCategory = new HashMap<>();
+        for (Transactions transact : transactions) {
+            add(spendByCategory, transact.getCategory(), transact.getAmount());
+        }
+        insightsFromTotals(spendByCategory, insights);
+    }
+
+    /**
+     * Spend by category over rows {@code fromRow} (inclusive) to {@code toRow} (exclusive) of the columns, summed
+     * by category id without creating an entity or amount per row. Totals are also collected by name just as from
+     * transactions, so categories come out in the same order.
+     */
+    @Override
+    public void spendByCategoryInsight(TransactionColumns columns, int fromRow, int toRow,
+                                       BiConsumer<InsightType, Insight> insights) {
+        if (parallel.splits(toRow - fromRow)) {
+            insightsFromTotals(parallelSpendByCategory(columns, fromRow, toRow), insights);
+            return;
+        }
+        long[][] totalByCategoryId = new long[columns.categoryCount()][];
+        Map<String, long[]> spendByCategory = new HashMap<>();
+        for (int row = fromRow; row < toRow; row++) {
+            int categoryId = columns.categoryId(row);
+            long[] total = totalByCategoryId[categoryId];
+            if (total == null) {
+                total = spendByCategory.computeIfAbsent(columns.categoryName(categoryId), key -> new long[1]);
+                totalByCategoryId[categoryId] = total;
+            }
+            total[0] = Math.addExact(total[0], columns.amountInPence(row));
+        }
+        insightsFromTotals(spendByCategory, insights);
+    }
+
+    @Override
+    public List<Insight> monthlySpendByCategoryInsight(List<MonthlySpend> monthlySpend) {
+        List<Insight> insights = new ArrayList<>();
+        monthlySpendByCategoryInsight(monthlySpend, (type, insight) -> insights.add(insight));
+        return unmodifiableList(insights);
+    }
+
+    @Override
+    public void monthlySpendByCategoryInsight(List<MonthlySpend> monthlySpend,
+                                              BiConsumer<InsightType, Insight> insights) {
+        Map<String, long[]> spendByCategory = new HashMap<>();
+        for (MonthlySpend spend : monthlySpend) {
+            add(spendByCategory, spend.getCategory(), spend.getTotal());
+        }
+        insightsFromTotals(spendByCategory, insights);
+    }
+
+    @Override
+    public List<Insight> spendByCategoryInsight(Map<String, BigDecimal> spendByCategory) {
+        return spendByCategory.entrySet().stream()
                 .filter(catEntry -> !catEntry.getKey().equalsIgnoreCase(EXEMPT_FROM_SPENDING_CATEGORY))
-                .map(catEntry -> {
-                    BigDecimal amount = catEntry.getValue().stream()
-                            .map(Transactions::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    return catEntry.getValue().stream()
-                            .map(transact -> {
-                                return setInsightFromTransaction(amount, transact);
-                            })
-                            .flatMap(insight -> insight.getInsights().stream())
-                            .distinct()
-                            .collect(toList());
-                }).flatMap(insights -> insights.stream())
+                .map(catEntry -> setInsightFromTotal(catEntry.getKey(), Pence.of(catEntry.getValue())))
+                .flatMap(insight -> insight.getInsights().stream())
                 .collect(toUnmodifiableList());
     }
 
-    private CustomerInsight setInsightFromTransaction(BigDecimal amount, Transactions transact) {
-        CustomerInsight insight = mapToInsightFrom(transact);
+    /**
+     * Adds the amount to its category's running total in pence. Each total is a one-element array updated in
+     * place, so summing allocates once per category rather than once per amount.
+     */
+    private static void add(Map<String, long[]> spendByCategory, String category, BigDecimal amount) {
+        long[] total = spendByCategory.computeIfAbsent(category, key -> new long[1]);
+        total[0] = Math.addExact(total[0], Pence.of(amount));
+    }
+
+    /**
+     * Same totals summed on the aggregation pool. Sums don't depend on the order amounts are added in, so each
+     * thread totals its own run of transactions by category and the runs' totals are added category by category.
+     */
+    private Map<String, long[]> parallelSpendByCategory(List<Transactions> transactions) {
+        return inFirstSeenOrder(parallel.invoke(() -> transactions.parallelStream()
+                .collect(groupingBy(Transactions::getCategory, LinkedHashMap::new, Collector.of(
+                        () -> new long[1],
+                        (total, transact) -> total[0] = Math.addExact(total[0], Pence.of(transact.getAmount())),
+                        (total, other) -> {
+                            total[0] = Math.addExact(total[0], other[0]);
+                            return total;
+                        })))));
+    }
+
+    /**
+     * Same totals from the columns summed on the aggregation pool, each thread totalling its own run of rows by
+     * category id. The first row of each category is kept with its total, to list categories in the order seen.
+     */
+    private Map<String, long[]> parallelSpendByCategory(TransactionColumns columns, int fromRow, int toRow) {
+        CategoryTotals totals = parallel.invoke(() -> IntStream.range(fromRow, toRow).parallel()
+                .collect(() -> new CategoryTotals(columns.categoryCount()),
+                        (categoryTotals, row) -> categoryTotals.add(columns.categoryId(row), row,
+                                columns.amountInPence(row)),
+                        CategoryTotals::addAll));
+        Map<String, long[]> spendByCategory = new LinkedHashMap<>();
+        IntStream.range(0, columns.categoryCount())
+                .filter(categoryId -> totals.firstRows[categoryId] < Integer.MAX_VALUE)
+                .boxed()
+                .sorted(comparingInt(categoryId -> totals.firstRows[categoryId]))
+                .forEach(categoryId -> spendByCategory.put(columns.categoryName(categoryId),
+                        new long[]{totals.totals[categoryId]}));
+        return inFirstSeenOrder(spendByCategory);
+    }
+
+    /**
+     * Copies totals, listed in the order their categories were first seen, into a map filled as one thread fills it,
+     * so categories come out in the same order whether or not the window was split.
+     */
+    private static Map<String, long[]> inFirstSeenOrder(Map<String, long[]> totals) {
+        Map<String, long[]> spendByCategory = new HashMap<>();
+        totals.forEach((category, total) -> spendByCategory.computeIfAbsent(category, key -> total));
+        return spendByCategory;
+    }
+
+    private void insightsFromTotals(Map<String, long[]> spendByCategory, BiConsumer<InsightType, Insight> insights) {
+        spendByCategory.forEach((category, total) -> {
+            if (!category.equalsIgnoreCase(EXEMPT_FROM_SPENDING_CATEGORY)) {
+                setInsightFromTotal(category, total[0]).forEachInsight(insights);
+            }
+        });
+    }
+
+    private CustomerInsight setInsightFromTotal(String category, long amount) {
+        CustomerInsight insight = new CustomerInsight();
+        insight.setCategory(category);
         insight.setSpendByCategory(amount);
         return insight;
     }
 
-    @Override
-    public CustomerInsight mapToInsightFrom(Transactions transact) {
-        CustomerInsight cInsight = new CustomerInsight();
-        cInsight.setAmount(transact.getAmount());
-        cInsight.setDate(transact.getDate());
-        cInsight.setCategory(transact.getCategory());
-        cInsight.setVendor(transact.getVendor());
-        return cInsight;
+    /**
+     * Totals in pence and first rows by category id over one run of rows.
+     */
+    private static final class CategoryTotals {
+        private final long[] totals;
+        private final int[] firstRows;
+
+        private CategoryTotals(int categories) {
+            totals = new long[categories];
+            firstRows = new int[categories];
+            Arrays.fill(firstRows, Integer.MAX_VALUE);
+        }
+
+        private void add(int categoryId, int row, long amountInPence) {
+            totals[categoryId] = Math.addExact(totals[categoryId], amountInPence);
+            firstRows[categoryId] = Math.min(firstRows[categoryId], row);
+        }
+
+        private void addAll(CategoryTotals other) {
+            for (int categoryId = 0; categoryId < totals.length; categoryId++) {
+                totals[categoryId] = Math.addExact(totals[categoryId], other.totals[categoryId]);
+                firstRows[categoryId] = Math.min(firstRows[categoryId], other.firstRows[categoryId]);
+            }
+        }
     }
 }
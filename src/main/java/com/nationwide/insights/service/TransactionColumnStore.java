@@ -0,0 +1,210 @@
+package com.nationwide.insights.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.TransactionsChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static com.nationwide.insights.service.CustomerInsightsService.LAST_12_MONTHS;
+import static com.nationwide.insights.service.CustomerInsightsService.windowEnd;
+import static com.nationwide.insights.service.CustomerInsightsService.windowStart;
+import static java.time.temporal.TemporalAdjusters.firstDayOfNextMonth;
+import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The read model behind {@code insights.aggregation=columnar}: each customer's transaction window as
+ * {@link TransactionColumns}, loaded from {@link TransactionRepository} the first time the customer is asked for
+ * and kept until the end of the month, since the window moves on then, or until one of the customer's transactions
+ * is written. Holds at most {@code insights.columnar.maximum-rows} rows across all customers, evicting the least
+ * used. Requests as of another month read that month's window without holding it. Loads read from the caller's
+ * transaction, so callers must be {@code @Transactional}.
+ */
+@Component
+@ManagedResource(objectName = "com.nationwide.insights:name=transactionColumnStore")
+public class TransactionColumnStore {
+    private final TransactionRepository repository;
+    private final Cache<Long, TransactionColumns> columnsById;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Clock clock;
+
+    @Autowired
+    public TransactionColumnStore(TransactionRepository repository,
+                                  @Value("${insights.columnar.maximum-rows:5000000}") long maximumRows,
+                                  MeterRegistry registry, Clock clock) {
+        this.repository = repository;
+        this.clock = clock;
+        this.columnsById = Caffeine.newBuilder()
+                .maximumWeight(maximumRows)
+                .weigher((Long id, TransactionColumns columns) -> columns.size() + 1)
+                .expireAfter(new UntilNextMonth<>(clock))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, columnsById, "transaction-columns");
+    }
+
+    public TransactionColumns get(Long id) {
+        return get(id, LocalDate.now(clock));
+    }
+
+    /**
+     * The customer's columns for the window around {@code asOf}, loaded if they aren't held. Concurrent misses on
+     * one id share a single load.
+     */
+    public TransactionColumns get(Long id, LocalDate asOf) {
+        if (!isThisMonth(asOf)) {
+            return load(id, asOf);
+        }
+        return columnsById.get(id, key -> load(key, asOf));
+    }
+
+    /**
+     * The columns of every customer for the window around {@code asOf}, in the order given, loading those not held
+     * with one query. A customer without transactions gets empty columns.
+     */
+    public Map<Long, TransactionColumns> getAll(Collection<Long> ids, LocalDate asOf) {
+        if (!isThisMonth(asOf)) {
+            return loadAll(ids, asOf);
+        }
+        Map<Long, TransactionColumns> held = columnsById.getAllPresent(ids);
+        List<Long> missing = ids.stream()
+                .filter(id -> !held.containsKey(id))
+                .collect(toList());
+        Map<Long, TransactionColumns> loaded = emptyMap();
+        if (!missing.isEmpty()) {
+            long invalidationsBeforeLoad = invalidations.get();
+            loaded = loadAll(missing, asOf);
+            // a write committed during the load may be missing from the rows read, so only keep them if none was
+            if (invalidations.get() == invalidationsBeforeLoad) {
+                loaded.forEach(columnsById::put);
+            }
+        }
+        Map<Long, TransactionColumns> columns = new LinkedHashMap<>();
+        for (Long id : ids) {
+            columns.put(id, held.containsKey(id) ? held.get(id) : loaded.get(id));
+        }
+        return columns;
+    }
+
+    /**
+     * Drops the customer's columns once the write commits, so the next request reads them again. A load still
+     * reading the old rows finishes before the entry is removed, so stale columns are never left behind.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidate(TransactionsChangedEvent event) {
+        invalidations.incrementAndGet();
+        columnsById.invalidate(event.getCustomerId());
+    }
+
+    private boolean isThisMonth(LocalDate asOf) {
+        return YearMonth.from(asOf).equals(YearMonth.now(clock));
+    }
+
+    private TransactionColumns load(Long id, LocalDate today) {
+        TransactionColumns.Builder columns = new TransactionColumns.Builder();
+        try (Stream<Object[]> rows = repository.streamColumnsByCustomerIdAndDateRange(id,
+                windowStart(LAST_12_MONTHS, today), windowEnd(today))) {
+            rows.forEach(row -> columns.add((LocalDate) row[0], (BigDecimal) row[1], (String) row[2], (String) row[3]));
+        }
+        return columns.build();
+    }
+
+    private Map<Long, TransactionColumns> loadAll(Collection<Long> ids, LocalDate today) {
+        Map<Long, TransactionColumns.Builder> builders = new HashMap<>();
+        try (Stream<Object[]> rows = repository.streamColumnsByCustomerIdInAndDateRange(ids,
+                windowStart(LAST_12_MONTHS, today), windowEnd(today))) {
+            rows.forEach(row -> builders.computeIfAbsent((Long) row[0], id -> new TransactionColumns.Builder())
+                    .add((LocalDate) row[1], (BigDecimal) row[2], (String) row[3], (String) row[4]));
+        }
+        Map<Long, TransactionColumns> columns = new LinkedHashMap<>();
+        ids.forEach(id -> {
+            TransactionColumns.Builder builder = builders.get(id);
+            columns.put(id, builder == null ? TransactionColumns.EMPTY : builder.build());
+        });
+        return columns;
+    }
+
+    @ManagedAttribute(description = "Requests answered from held columns")
+    public long getHitCount() {
+        return columnsById.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Requests that loaded a customer's columns")
+    public long getMissCount() {
+        return columnsById.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Customers evicted to stay within the maximum rows")
+    public long getEvictionCount() {
+        return columnsById.stats().evictionCount();
+    }
+
+    @ManagedAttribute(description = "Customers currently held")
+    public long getSize() {
+        return columnsById.estimatedSize();
+    }
+
+    @ManagedAttribute(description = "Transactions currently held, across all customers")
+    public long getRows() {
+        return columnsById.asMap().values().stream().mapToLong(TransactionColumns::size).sum();
+    }
+
+    @ManagedAttribute(description = "Approximate heap held by the columns, in bytes, not counting vendor and category names")
+    public long getEstimatedBytes() {
+        return columnsById.asMap().values().stream().mapToLong(TransactionColumns::estimatedBytes).sum();
+    }
+
+    static Duration untilNextMonth(ZonedDateTime now) {
+        return Duration.between(now, now.toLocalDate().with(firstDayOfNextMonth()).atStartOfDay(now.getZone()));
+    }
+
+    /**
+     * Expires an entry at the start of the month after it was written, when the window it holds moves on; reads
+     * don't extend it.
+     */
+    static class UntilNextMonth<V> implements Expiry<Long, V> {
+        private final Clock clock;
+
+        UntilNextMonth(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, V value, long currentTime) {
+            return untilNextMonth(ZonedDateTime.now(clock)).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, V value, long currentTime, long currentDuration) {
+            return untilNextMonth(ZonedDateTime.now(clock)).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(Long id, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
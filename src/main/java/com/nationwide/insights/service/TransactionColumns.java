@@ -0,0 +1,151 @@
+package com.nationwide.insights.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One customer's transaction window held as primitive columns, in date order: the epoch day, the amount in pence
+ * (at the two decimal places of {@code T_AMOUNT}) and the vendor and category as ids into the customer's own
+ * dictionaries. A row costs 20 bytes against several hundred for a {@code Transactions} entity with its
+ * {@link LocalDate}, {@link BigDecimal} and strings, and reading a row allocates nothing.
+ * <p>
+ * Vendor and category names are interned, so customers using the same vendor share one copy of its name.
+ * Instances are immutable once built.
+ */
+public final class TransactionColumns {
+    static final TransactionColumns EMPTY = new Builder().build();
+    private static final int BYTES_PER_ROW = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private final int[] days;
+    private final long[] amounts;
+    private final int[] vendors;
+    private final int[] categories;
+    private final String[] vendorNames;
+    private final String[] categoryNames;
+
+    private TransactionColumns(int[] days, long[] amounts, int[] vendors, int[] categories,
+                               String[] vendorNames, String[] categoryNames) {
+        this.days = days;
+        this.amounts = amounts;
+        this.vendors = vendors;
+        this.categories = categories;
+        this.vendorNames = vendorNames;
+        this.categoryNames = categoryNames;
+    }
+
+    public int size() {
+        return days.length;
+    }
+
+    public int epochDay(int row) {
+        return days[row];
+    }
+
+    public long amountInPence(int row) {
+        return amounts[row];
+    }
+
+    public int vendorId(int row) {
+        return vendors[row];
+    }
+
+    public int categoryId(int row) {
+        return categories[row];
+    }
+
+    public String vendorName(int vendorId) {
+        return vendorNames[vendorId];
+    }
+
+    public String categoryName(int categoryId) {
+        return categoryNames[categoryId];
+    }
+
+    public int vendorCount() {
+        return vendorNames.length;
+    }
+
+    public int categoryCount() {
+        return categoryNames.length;
+    }
+
+    /**
+     * The first row dated on or after the epoch day, or {@link #size()} if there is none.
+     */
+    public int firstRowOnOrAfter(int epochDay) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Heap held by the columns, not counting the shared vendor and category names.
+     */
+    long estimatedBytes() {
+        return (long) size() * BYTES_PER_ROW + (long) (vendorNames.length + categoryNames.length) * Integer.BYTES;
+    }
+
+    /**
+     * Collects rows in date order, giving each new vendor and category the next id.
+     */
+    static class Builder {
+        private static final int INITIAL_CAPACITY = 64;
+        private final Map<String, Integer> vendorIds = new HashMap<>();
+        private final Map<String, Integer> categoryIds = new HashMap<>();
+        private int[] days = new int[INITIAL_CAPACITY];
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        private int[] vendors = new int[INITIAL_CAPACITY];
+        private int[] categories = new int[INITIAL_CAPACITY];
+        private int size;
+
+        Builder add(LocalDate date, BigDecimal amount, String vendor, String category) {
+            int epochDay = (int) date.toEpochDay();
+            if (size > 0 && epochDay < days[size - 1]) {
+                throw new IllegalArgumentException("Transactions must be added in date order: " + date);
+            }
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+                vendors = Arrays.copyOf(vendors, size * 2);
+                categories = Arrays.copyOf(categories, size * 2);
+            }
+            days[size] = epochDay;
+            amounts[size] = Pence.of(amount);
+            vendors[size] = idOf(vendorIds, vendor);
+            categories[size] = idOf(categoryIds, category);
+            size++;
+            return this;
+        }
+
+        TransactionColumns build() {
+            return new TransactionColumns(Arrays.copyOf(days, size), Arrays.copyOf(amounts, size),
+                    Arrays.copyOf(vendors, size), Arrays.copyOf(categories, size),
+                    namesOf(vendorIds), namesOf(categoryIds));
+        }
+
+        private static int idOf(Map<String, Integer> ids, String name) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = ids.size();
+                ids.put(name.intern(), id);
+            }
+            return id;
+        }
+
+        private static String[] namesOf(Map<String, Integer> ids) {
+            String[] names = new String[ids.size()];
+            ids.forEach((name, id) -> names[id] = name);
+            return names;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.api.exception.CustomerNotFoundException;
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.domain.dimension.Dimensions;
+import com.nationwide.insights.domain.transactions.NewTransaction;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toSet;
+import static org.slf4j.LoggerFactory.getLogger;
+
+@Service
+public class TransactionIngestService {
+    private static final Logger LOG = getLogger(TransactionIngestService.class.getCanonicalName());
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final Dimensions dimensions;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+
+    @Autowired
+    public TransactionIngestService(EntityManager entityManager, CustomerRepository customerRepository,
+                                    Dimensions dimensions, TransactionTemplate transaction,
+                                    @Value("${insights.ingest.batch-size:500}") int batchSize) {
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.dimensions = dimensions;
+        this.transaction = transaction;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Writes the transactions in one database transaction. Vendor and category names are looked up first, so
+     * names not seen before are added while no connection is held rather than inside the write. Ids come from a
+     * pooled sequence, so Hibernate sends each {@code insights.ingest.batch-size} rows as one JDBC batch; the
+     * persistence context is flushed and cleared between batches so it never holds more than one batch of
+     * entities. The customers written for are locked in id order before any row is, so the rollup rows a later
+     * batch first inserts never take a customer's lock out of order against another ingest.
+     */
+    public int ingest(List<NewTransaction> transactions) {
+        for (NewTransaction transact : transactions) {
+            dimensions.vendors().idOf(transact.getVendor());
+            dimensions.categories().idOf(transact.getCategory());
+        }
+        return transaction.execute(status -> write(transactions));
+    }
+
+    private int write(List<NewTransaction> transactions) {
+        Set<Long> customerIds = transactions.stream()
+                .map(NewTransaction::getCustomerId)
+                .collect(toCollection(LinkedHashSet::new));
+        Set<Long> existing = customerRepository.lockAllById(customerIds).stream()
+                .map(Customer::getId)
+                .collect(toSet());
+        customerIds.stream()
+                .filter(id -> !existing.contains(id))
+                .findFirst()
+                .ifPresent(id -> {
+                    throw new CustomerNotFoundException(id);
+                });
+
+        int written = 0;
+        for (NewTransaction transact : transactions) {
+            entityManager.persist(new Transactions(null,
+                    transact.getAmount(),
+                    transact.getDate(),
+                    transact.getDescription(),
+                    transact.getCategory(),
+                    transact.getVendor(),
+                    entityManager.getReference(Customer.class, transact.getCustomerId())));
+            if (++written % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        LOG.info("Ingested {} transactions for {} customers", written, customerIds.size());
+        return written;
+    }
+}
@@ -0,0 +1,136 @@
+package com.nationwide.insights.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * One vendor's spend for the {@link BillBaseline#HALVING} baseline: tracks the latest amount as entries arrive
+ * and keeps the remainder, since the baseline depends on their order. Dates are held as epoch days and amounts as
+ * pence, along with the number of decimal places each was given in so the baseline rounds exactly as it did on
+ * {@link BigDecimal}.
+ */
+class VendorHistory implements IVendorHistory {
+    private static final int INITIAL_CAPACITY = 8;
+    private final String vendor;
+    private int[] days;
+    private long[] amounts;
+    private byte[] scales;
+    private String latestCategory;
+    private int size;
+    private int latest;
+    private boolean dateOrdered;
+
+    VendorHistory(String vendor) {
+        this.vendor = vendor;
+        this.days = new int[INITIAL_CAPACITY];
+        this.amounts = new long[INITIAL_CAPACITY];
+        this.scales = new byte[INITIAL_CAPACITY];
+        this.latest = -1;
+        this.dateOrdered = true;
+    }
+
+    @Override
+    public void add(int epochDay, long amountInPence, int scale, String category) {
+        int index = size;
+        if (index > 0 && epochDay < days[index - 1]) {
+            dateOrdered = false;
+        }
+        if (latest < 0 || epochDay > days[latest]) {
+            latest = index;
+            latestCategory = category;
+        }
+        if (index == amounts.length) {
+            days = Arrays.copyOf(days, index * 2);
+            amounts = Arrays.copyOf(amounts, index * 2);
+            scales = Arrays.copyOf(scales, index * 2);
+        }
+        days[index] = epochDay;
+        amounts[index] = amountInPence;
+        scales[index] = (byte) scale;
+        size++;
+    }
+
+    @Override
+    public String getVendor() {
+        return vendor;
+    }
+
+    @Override
+    public String getLatestCategory() {
+        return latestCategory;
+    }
+
+    @Override
+    public LocalDate getLatestDate() {
+        return LocalDate.ofEpochDay(days[latest]);
+    }
+
+    @Override
+    public int getLatestEpochDay() {
+        return days[latest];
+    }
+
+    @Override
+    public long getLatestAmount() {
+        return amounts[latest];
+    }
+
+    /**
+     * The amount previous months are compared against, in pence: every entry but the latest, most recent first,
+     * halving the running amount at each step. Empty when there is nothing before the latest entry.
+     */
+    @Override
+    public OptionalLong baseline() {
+        int[] history = history();
+        if (history.length == 0) {
+            return OptionalLong.empty();
+        }
+        long baseline = amounts[history[0]];
+        int scale = scales[history[0]];
+        for (int i = 1; i < history.length; i++) {
+            scale = Math.max(scale, scales[history[i]]);
+            // not sure about precision here as the spec omits precision
+            baseline = Pence.average(baseline, amounts[history[i]], scale);
+        }
+        return OptionalLong.of(baseline);
+    }
+
+    /**
+     * The index of every entry but the latest, most recent first, same-day entries in arrival order.
+     * Entries that arrive in date order are walked back day by day instead of being sorted.
+     */
+    private int[] history() {
+        int[] history = new int[Math.max(0, size - 1)];
+        int next = 0;
+        if (dateOrdered) {
+            int end = size;
+            while (end > 0) {
+                int start = end - 1;
+                int day = days[start];
+                while (start > 0 && days[start - 1] == day) {
+                    start--;
+                }
+                for (int i = start; i < end; i++) {
+                    if (i != latest) {
+                        history[next++] = i;
+                    }
+                }
+                end = start;
+            }
+        } else {
+            Integer[] indices = new Integer[history.length];
+            for (int i = 0; i < size; i++) {
+                if (i != latest) {
+                    indices[next++] = i;
+                }
+            }
+            Arrays.sort(indices, (a, b) -> Integer.compare(days[b], days[a]));
+            for (int i = 0; i < indices.length; i++) {
+                history[i] = indices[i];
+            }
+        }
+        return history;
+    }
+}
@@ -0,0 +1,129 @@
+package com.nationwide.insights.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * One vendor's spend for the {@link BillBaseline#MEAN} baseline: the latest entry and the exact sum and count of
+ * the entries before it, so an entry is added in constant time whatever its date and none is kept. With a trailing
+ * window of {@code months}, sums are also kept per calendar month for the latest entry's month and the
+ * {@code months} before it, and older months drop out of the baseline as a later entry moves the window on.
+ */
+class VendorMeanHistory implements IVendorHistory {
+    private static final int NO_MONTH = Integer.MIN_VALUE;
+    private final String vendor;
+    private final int months;
+    private final int[] monthBySlot;
+    private final long[] totalBySlot;
+    private final int[] countBySlot;
+    private long total;
+    private long count;
+    private boolean empty = true;
+    private int latestDay;
+    private long latestAmount;
+    private String latestCategory;
+    private int firstMonth;
+
+    /**
+     * @param months the calendar months before the latest entry's month the baseline reaches back, or 0 for every
+     *               earlier entry
+     */
+    VendorMeanHistory(String vendor, int months) {
+        this.vendor = vendor;
+        this.months = months;
+        int slots = months == 0 ? 0 : months + 1;
+        this.monthBySlot = new int[slots];
+        this.totalBySlot = new long[slots];
+        this.countBySlot = new int[slots];
+        Arrays.fill(monthBySlot, NO_MONTH);
+    }
+
+    @Override
+    public void add(int epochDay, long amountInPence, int scale, String category) {
+        if (empty) {
+            empty = false;
+            latest(epochDay, amountInPence, category);
+        } else if (epochDay > latestDay) {
+            int previousDay = latestDay;
+            long previousAmount = latestAmount;
+            latest(epochDay, amountInPence, category);
+            addToBaseline(previousDay, previousAmount);
+        } else {
+            addToBaseline(epochDay, amountInPence);
+        }
+    }
+
+    private void latest(int epochDay, long amountInPence, String category) {
+        latestDay = epochDay;
+        latestAmount = amountInPence;
+        latestCategory = category;
+        if (months > 0) {
+            firstMonth = monthOf(epochDay) - months;
+            for (int slot = 0; slot < monthBySlot.length; slot++) {
+                if (monthBySlot[slot] != NO_MONTH && monthBySlot[slot] < firstMonth) {
+                    total -= totalBySlot[slot];
+                    count -= countBySlot[slot];
+                    monthBySlot[slot] = NO_MONTH;
+                }
+            }
+        }
+    }
+
+    private void addToBaseline(int epochDay, long amountInPence) {
+        if (months > 0) {
+            int month = monthOf(epochDay);
+            if (month < firstMonth) {
+                return;
+            }
+            int slot = month % monthBySlot.length;
+            if (monthBySlot[slot] != month) {
+                monthBySlot[slot] = month;
+                totalBySlot[slot] = 0L;
+                countBySlot[slot] = 0;
+            }
+            totalBySlot[slot] = Math.addExact(totalBySlot[slot], amountInPence);
+            countBySlot[slot]++;
+        }
+        total = Math.addExact(total, amountInPence);
+        count++;
+    }
+
+    private static int monthOf(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    @Override
+    public String getVendor() {
+        return vendor;
+    }
+
+    @Override
+    public String getLatestCategory() {
+        return latestCategory;
+    }
+
+    @Override
+    public LocalDate getLatestDate() {
+        return LocalDate.ofEpochDay(latestDay);
+    }
+
+    @Override
+    public int getLatestEpochDay() {
+        return latestDay;
+    }
+
+    @Override
+    public long getLatestAmount() {
+        return latestAmount;
+    }
+
+    /**
+     * The mean of the entries before the latest in the window, rounded up to the penny.
+     */
+    @Override
+    public OptionalLong baseline() {
+        return count == 0 ? OptionalLong.empty() : OptionalLong.of(Pence.mean(total, count));
+    }
+}
@@ -1,15 +1,35 @@
-INSERT INTO CUSTOMER (C_NAME) VALUES
-  ('bob'),
-  ('louise');
+INSERT INTO CUSTOMER (ID, C_NAME) VALUES
+  (1, 'bob'),
+  (2, 'louise');
 
-INSERT INTO TRANSACTIONS (T_AMOUNT, T_DATE, DESCRIPTION, CATEGORY, VENDOR, CUSTOMER_ID) VALUES
-  ('700', '2021-1-19', 'Belcher', 'restaurants', 'bobs burgers', 1),
-  ('50', '2021-2-19', 'Belcher', 'restaurants', 'bobs burgers', 1),
-  ('600', '2021-2-19', 'Belcher', 'restaurants', 'bobs burgers', 1),
+ALTER SEQUENCE CUSTOMER_SEQ RESTART WITH 3;
 
-  ('60', '2021-1-19', 'Belcher', 'bill', 'llyods bank', 1),
-  ('60', '2021-1-20', 'Belcher', 'bill', 'barclays bank', 1),
-  ('100', '2021-2-19', 'Belcher', 'bill', 'llyods bank', 1),
+INSERT INTO VENDOR (ID, V_NAME) VALUES
+  (1, 'bobs burgers'),
+  (2, 'llyods bank'),
+  (3, 'barclays bank');
 
-  ('700', '2021-2-19', 'Belcher', 'restaurants', 'bobs burgers', 2),
-  ('700', '2021-2-19', 'Belcher', 'restaurants', 'bobs burgers', 2)
+ALTER SEQUENCE VENDOR_SEQ RESTART WITH 4;
+
+INSERT INTO CATEGORY (ID, C_NAME) VALUES
+  (1, 'restaurants'),
+  (2, 'bill');
+
+ALTER SEQUENCE CATEGORY_SEQ RESTART WITH 3;
+
+INSERT INTO TRANSACTIONS (T_AMOUNT, T_DATE, DESCRIPTION, CATEGORY_ID, VENDOR_ID, CUSTOMER_ID) VALUES
+  ('700', '2021-1-19', 'Belcher', 1, 1, 1),
+  ('50', '2021-2-19', 'Belcher', 1, 1, 1),
+  ('600', '2021-2-19', 'Belcher', 1, 1, 1),
+
+  ('60', '2021-1-19', 'Belcher', 2, 2, 1),
+  ('60', '2021-1-20', 'Belcher', 2, 3, 1),
+  ('100', '2021-2-19', 'Belcher', 2, 2, 1),
+
+  ('700', '2021-2-19', 'Belcher', 1, 1, 2),
+  ('700', '2021-2-19', 'Belcher', 1, 1, 2);
+
+INSERT INTO CUSTOMER_MONTHLY_ROLLUP (CUSTOMER_ID, R_YEAR_MONTH, VENDOR_ID, CATEGORY_ID, R_TOTAL, R_COUNT)
+  SELECT CUSTOMER_ID, T_YEAR_MONTH, VENDOR_ID, CATEGORY_ID, SUM(T_AMOUNT), COUNT(*)
+  FROM TRANSACTIONS
+  GROUP BY CUSTOMER_ID, T_YEAR_MONTH, VENDOR_ID, CATEGORY_ID;
@@ -1,21 +1,79 @@
 DROP TABLE IF EXISTS CUSTOMER CASCADE ;
+DROP SEQUENCE IF EXISTS CUSTOMER_SEQ;
+
+CREATE SEQUENCE CUSTOMER_SEQ START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE CUSTOMER (
-  ID BIGINT NOT NULL AUTO_INCREMENT,
+  ID BIGINT DEFAULT NEXT VALUE FOR CUSTOMER_SEQ NOT NULL,
   C_NAME VARCHAR(250) NOT NULL,
   PRIMARY KEY (ID)
 );
 
+DROP TABLE IF EXISTS VENDOR CASCADE;
+DROP SEQUENCE IF EXISTS VENDOR_SEQ;
+
+CREATE SEQUENCE VENDOR_SEQ START WITH 1;
+
+CREATE TABLE VENDOR (
+  ID INT DEFAULT NEXT VALUE FOR VENDOR_SEQ NOT NULL,
+  V_NAME VARCHAR(250) NOT NULL,
+  PRIMARY KEY (ID),
+  UNIQUE (V_NAME)
+);
+
+DROP TABLE IF EXISTS CATEGORY CASCADE;
+DROP SEQUENCE IF EXISTS CATEGORY_SEQ;
+
+CREATE SEQUENCE CATEGORY_SEQ START WITH 1;
+
+CREATE TABLE CATEGORY (
+  ID INT DEFAULT NEXT VALUE FOR CATEGORY_SEQ NOT NULL,
+  C_NAME VARCHAR(250) NOT NULL,
+  PRIMARY KEY (ID),
+  UNIQUE (C_NAME)
+);
+
 DROP TABLE IF EXISTS TRANSACTIONS CASCADE;
+DROP SEQUENCE IF EXISTS TRANSACTIONS_SEQ;
+
+CREATE SEQUENCE TRANSACTIONS_SEQ START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE TRANSACTIONS (
-  ID BIGINT NOT NULL AUTO_INCREMENT,
+  ID BIGINT DEFAULT NEXT VALUE FOR TRANSACTIONS_SEQ NOT NULL,
   T_AMOUNT DECIMAL(100,2) NOT NULL,
   T_DATE DATE (250) NOT NULL,
+  T_YEAR_MONTH INT AS (YEAR(T_DATE) * 100 + MONTH(T_DATE)),
   DESCRIPTION VARCHAR(250) NOT NULL,
-  CATEGORY VARCHAR(250) NOT NULL,
-  VENDOR VARCHAR(250) NOT NULL,
+  CATEGORY_ID INT NOT NULL,
+  VENDOR_ID INT NOT NULL,
   CUSTOMER_ID BIGINT NOT NULL,
   FOREIGN KEY(CUSTOMER_ID) REFERENCES CUSTOMER(ID),
   PRIMARY KEY (ID)
 );
+
+CREATE INDEX IDX_TRANSACTIONS_CUSTOMER_DATE ON TRANSACTIONS (CUSTOMER_ID, T_DATE);
+CREATE INDEX IDX_TRANSACTIONS_CUSTOMER_YEAR_MONTH ON TRANSACTIONS (CUSTOMER_ID, T_YEAR_MONTH);
+
+DROP TABLE IF EXISTS CUSTOMER_MONTHLY_ROLLUP CASCADE;
+
+CREATE TABLE CUSTOMER_MONTHLY_ROLLUP (
+  CUSTOMER_ID BIGINT NOT NULL,
+  R_YEAR_MONTH INT NOT NULL,
+  VENDOR_ID INT NOT NULL,
+  CATEGORY_ID INT NOT NULL,
+  R_TOTAL DECIMAL(100,2) NOT NULL,
+  R_COUNT BIGINT NOT NULL,
+  PRIMARY KEY (CUSTOMER_ID, R_YEAR_MONTH, VENDOR_ID, CATEGORY_ID)
+);
+
+DROP TABLE IF EXISTS INSIGHTS CASCADE;
+
+CREATE TABLE INSIGHTS (
+  CUSTOMER_ID BIGINT NOT NULL,
+  I_AS_OF DATE NOT NULL,
+  T_COUNT BIGINT NOT NULL,
+  T_MAX_ID BIGINT NOT NULL,
+  I_INSIGHTS VARCHAR(65535) NOT NULL,
+  FOREIGN KEY(CUSTOMER_ID) REFERENCES CUSTOMER(ID),
+  PRIMARY KEY (CUSTOMER_ID)
+);
@@ -0,0 +1,111 @@
+package com.nationwide.insights.api.controller;
+
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import com.nationwide.insights.service.InsightExecutor;
+import com.nationwide.insights.service.TransactionCategory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-local.properties", properties = {
+        "insights.async.enabled=true",
+        "insights.async.threads=1",
+        "insights.async.queue-capacity=1"})
+@ActiveProfiles("test")
+public class CustomerInsightAsyncITTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InsightExecutor executor;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    @DisplayName("GET /api/v1/customer/insights/{id} in async mode when 200 OK")
+    void asyncCustomerInsightById200Test() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Louise"));
+        transactRepository.save(new Transactions(null, BigDecimal.valueOf(400000, 2), LocalDate.now(), "description",
+                TransactionCategory.RESTAURANTS.toString(), "Nandos'", customer));
+        long waits = registry.timer("insights.async.wait").count();
+
+        // When
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/customer/insights/" + customer.getId())
+                .contentType("application/json;charset=UTF-8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json;charset=UTF-8"))
+                .andExpect(jsonPath("$[0].insight", is("You've spent £4000 in restaurants this month")));
+        // And
+        assertEquals(waits + 1, registry.timer("insights.async.wait").count());
+        assertEquals(0.0, registry.get("insights.async.queue").gauge().value());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/customer/insights/{id} in async mode when 503 the insight queue is full")
+    void asyncCustomerInsightByIdWhenQueueFull503Test() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        executor.execute(blocked);
+        executor.execute(blocked);
+
+        try {
+            // When
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get("/api/v1/customer/insights/1")
+                    .contentType("application/json;charset=UTF-8"))
+                    // Then
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.statusCode", is(503)));
+        } finally {
+            release.countDown();
+        }
+    }
+}
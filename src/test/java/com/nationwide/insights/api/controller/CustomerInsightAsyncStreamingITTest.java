@@ -0,0 +1,92 @@
+package com.nationwide.insights.api.controller;
+
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import com.nationwide.insights.service.TransactionCategory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.ResultMatcher.matchAll;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-local.properties", properties = {
+        "insights.async.enabled=true",
+        "insights.response.streaming=true"})
+@ActiveProfiles("test")
+public class CustomerInsightAsyncStreamingITTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    @DisplayName("GET /api/v1/customer/insights/{id} in async mode streams bill tracking then spend by category insights when 200 OK")
+    void asyncStreamCustomerInsightById200Test() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Louise"));
+        save(customer, BigDecimal.valueOf(5000, 2), LocalDate.now().minusMonths(1), TransactionCategory.BILL, "Vodafone");
+        save(customer, BigDecimal.valueOf(7000, 2), LocalDate.now(), TransactionCategory.BILL, "Vodafone");
+        // And
+        save(customer, BigDecimal.valueOf(400000, 2), LocalDate.now(), TransactionCategory.RESTAURANTS, "Nandos'");
+
+        // When
+        MvcResult started = mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/customer/insights/" + customer.getId())
+                .contentType("application/json;charset=UTF-8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult sent = mockMvc.perform(asyncDispatch(started)).andReturn();
+        sent.getAsyncResult();
+
+        // Then
+        matchAll(status().isOk(),
+                content().contentType("application/json;charset=UTF-8"),
+                jsonPath("$", hasSize(2)),
+                jsonPath("$[0].insight", is("Your latest Vodafone bill is £20 more than previous months")),
+                jsonPath("$[1].insight", is("You've spent £4000 in restaurants this month")))
+                .match(sent);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/customer/insights/99 in async mode when streaming and 404 customer id not found")
+    void asyncStreamCustomerInsightByIdButCustomerNotFoundTest() throws Exception {
+        // When
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/customer/insights/99")
+                .contentType("application/json;charset=UTF-8"))
+                // Then
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType("application/json;charset=UTF-8"))
+                .andExpect(jsonPath("$.statusCode", is(404)))
+                .andExpect(jsonPath("$.description", is("uri=/api/v1/customer/insights/99")));
+    }
+
+    private void save(Customer customer, BigDecimal amount, LocalDate date, TransactionCategory category, String vendor) {
+        transactRepository.save(new Transactions(null, amount, date, "description", category.toString(), vendor, customer));
+    }
+}
@@ -24,9 +24,12 @@ import java.util.List;
 
 import static java.lang.String.format;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -50,10 +53,9 @@ public class CustomerInsightControllerITTest {
     @DisplayName("GET /api/v1/customer/insights/1 when 200 OK")
     void getCustomerInsightById200Test() throws Exception {
         // Given
-        Customer customer = new Customer(1L, "Louise");
-        customerRepository.save(customer);
+        Customer customer = customerRepository.save(new Customer(null, "Louise"));
         transactions = new Transactions(
-                1L,
+                null,
                 BigDecimal.valueOf(400000, 2),
                 LocalDate.now(),
                 "description",
@@ -64,7 +66,7 @@ public class CustomerInsightControllerITTest {
 
         // When
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders
-                .get("/api/v1/customer/insights/1")
+                .get("/api/v1/customer/insights/" + customer.getId())
                 .contentType("application/json;charset=UTF-8"))
                 // Then
                 .andExpect(status().isOk())
@@ -78,6 +80,36 @@ public class CustomerInsightControllerITTest {
         assertEquals(expectedInsight, iInsights.get(0));
     }
 
+    @Test
+    @DisplayName("POST /api/v1/customer/insights/batch when 200 OK, with a 404 entry for an unknown customer id")
+    void getCustomerInsightsByIdsWithUnknownCustomerTest() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Tina"));
+        transactRepository.save(new Transactions(
+                null,
+                BigDecimal.valueOf(2500, 2),
+                LocalDate.now(),
+                "description",
+                TransactionCategory.CAFES.toString(),
+                "Starbucks",
+                customer));
+        long unknownCustomer = 99L;
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/v1/customer/insights/batch")
+                .contentType("application/json;charset=UTF-8")
+                .content(format("[%d, %d]", customer.getId(), unknownCustomer)))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json;charset=UTF-8"))
+                .andExpect(jsonPath(format("$['%d'].statusCode", customer.getId()), is(200)))
+                .andExpect(jsonPath(format("$['%d'].insights[0].insight", customer.getId()),
+                        is("You've spent £25 in cafes this month")))
+                .andExpect(jsonPath("$['99'].statusCode", is(404)))
+                .andExpect(jsonPath("$['99'].message", is("Customer with id 99 not found")));
+    }
+
     @Test
     @DisplayName("GET /api/v1/customer/insights/99 when 404 customer id not found")
     void getCustomerInsightByIdButCustomerNotFoundTest() throws Exception {
@@ -109,6 +141,80 @@ public class CustomerInsightControllerITTest {
                 .andExpect(jsonPath("$.description", is("uri=/api/v1/customer/insights/0")));
     }
 
+    @Test
+    @DisplayName("GET /api/v1/customer/insights/{id}?asOf= works out a past month's insights when 200 OK")
+    void getCustomerInsightByIdAsOf200Test() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Louise"));
+        save(customer, BigDecimal.valueOf(5000, 2), LocalDate.of(2021, 1, 19), TransactionCategory.BILL, "Vodafone");
+        save(customer, BigDecimal.valueOf(7000, 2), LocalDate.of(2021, 2, 19), TransactionCategory.BILL, "Vodafone");
+        save(customer, BigDecimal.valueOf(2500, 2), LocalDate.of(2021, 2, 20), TransactionCategory.RESTAURANTS, "Nandos'");
+        // And
+        save(customer, BigDecimal.valueOf(9900, 2), LocalDate.now(), TransactionCategory.RESTAURANTS, "Nandos'");
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/customer/insights/" + customer.getId())
+                .param("asOf", "2021-02-28")
+                .contentType("application/json;charset=UTF-8"))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].insight", is("Your latest Vodafone bill is £20 more than previous months")))
+                .andExpect(jsonPath("$[1].insight", is("You've spent £25 in restaurants this month")));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/customer/insights/{id}?types=SPEND_BY_CATEGORY when 200 OK with spend by category only")
+    void getCustomerInsightByIdOfTypes200Test() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Louise"));
+        save(customer, BigDecimal.valueOf(5000, 2), LocalDate.now().minusMonths(1), TransactionCategory.BILL, "Vodafone");
+        save(customer, BigDecimal.valueOf(7000, 2), LocalDate.now(), TransactionCategory.BILL, "Vodafone");
+        save(customer, BigDecimal.valueOf(2500, 2), LocalDate.now(), TransactionCategory.RESTAURANTS, "Nandos'");
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/customer/insights/" + customer.getId())
+                .param("types", "SPEND_BY_CATEGORY")
+                .contentType("application/json;charset=UTF-8"))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", endsWith("-SPEND_BY_CATEGORY\"")))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].insight", is("You've spent £25 in restaurants this month")));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/customer/insights/{id} with the current ETag in If-None-Match when 304 NOT MODIFIED")
+    void getCustomerInsightByIdNotModified304Test() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Louise"));
+        save(customer, BigDecimal.valueOf(2500, 2), LocalDate.now(), TransactionCategory.RESTAURANTS, "Nandos'");
+        String etag = mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/customer/insights/" + customer.getId())
+                .contentType("application/json;charset=UTF-8"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/customer/insights/" + customer.getId())
+                .header("If-None-Match", etag)
+                .contentType("application/json;charset=UTF-8"))
+                // Then
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        // And
+        save(customer, BigDecimal.valueOf(1500, 2), LocalDate.now(), TransactionCategory.RESTAURANTS, "Wagamama");
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/customer/insights/" + customer.getId())
+                .header("If-None-Match", etag)
+                .contentType("application/json;charset=UTF-8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].insight", is("You've spent £40 in restaurants this month")));
+    }
+
     @Test
     @DisplayName("GET /api/v1/customer/insights/1 when MEDIA TYPE NOT SUPPORTED")
     void getCustomerInsightByIdMediaTypeNotSupported415Test() throws Exception {
@@ -125,4 +231,8 @@ public class CustomerInsightControllerITTest {
                 .andExpect(jsonPath("$.description", is("uri=/api/v1/customer/insights/1")))
                 .andReturn();
     }
+
+    private void save(Customer customer, BigDecimal amount, LocalDate date, TransactionCategory category, String vendor) {
+        transactRepository.save(new Transactions(null, amount, date, "description", category.toString(), vendor, customer));
+    }
 }
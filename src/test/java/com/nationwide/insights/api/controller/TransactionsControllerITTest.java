@@ -0,0 +1,80 @@
+package com.nationwide.insights.api.controller;
+
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+import static java.lang.String.format;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-local.properties")
+@ActiveProfiles("test")
+public class TransactionsControllerITTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    @DisplayName("POST /api/v1/customer/transactions when 201 CREATED writes every transaction")
+    void ingestTransactions201Test() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Gene"));
+        int transactions = 1200;
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < transactions; i++) {
+            body.add(format("{\"customerId\": %d, \"amount\": 1.50, \"date\": \"%s\", \"description\": \"lunch\", " +
+                    "\"category\": \"restaurants\", \"vendor\": \"Nandos'\"}", customer.getId(), LocalDate.now()));
+        }
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/v1/customer/transactions")
+                .contentType("application/json;charset=UTF-8")
+                .content(body.toString()))
+                // Then
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType("application/json;charset=UTF-8"))
+                .andExpect(jsonPath("$.count", is(transactions)));
+        // And
+        assertEquals(transactions, transactRepository.findAllByCustomerId(customer.getId()).size());
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/customer/transactions when 404 customer does not exist")
+    void ingestTransactionsForUnknownCustomer404Test() throws Exception {
+        // When
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/v1/customer/transactions")
+                .contentType("application/json;charset=UTF-8")
+                .content("[{\"customerId\": 99, \"amount\": 1.50, \"date\": \"2021-02-19\", \"description\": \"lunch\", " +
+                        "\"category\": \"restaurants\", \"vendor\": \"Nandos'\"}]"))
+                // Then
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.statusCode", is(404)))
+                .andExpect(jsonPath("$.message", containsString("Customer with id 99 does not exist")));
+    }
+}
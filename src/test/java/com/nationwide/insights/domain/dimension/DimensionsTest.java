@@ -0,0 +1,44 @@
+package com.nationwide.insights.domain.dimension;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties")
+@ActiveProfiles("test")
+public class DimensionsTest {
+
+    @Autowired
+    private Dimensions dimensions;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DisplayName("a name first met in a transaction that rolls back is added again rather than held")
+    @Test
+    public void nameAddedInRolledBackTransactionNotHeldTest() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> {
+            dimensions.vendors().idOf("Pret");
+            status.setRollbackOnly();
+        });
+
+        // When
+        int id = dimensions.vendors().idOf("Pret");
+
+        // Then
+        assertEquals("Pret", jdbcTemplate.queryForObject("select V_NAME from VENDOR where ID = ?", String.class, id));
+        assertEquals("Pret", dimensions.vendors().nameOf(id));
+    }
+}
@@ -0,0 +1,141 @@
+package com.nationwide.insights.domain.transactions;
+
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.service.TransactionIngestService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.nationwide.insights.domain.transactions.MonthlyRollup.yearMonthOf;
+import static com.nationwide.insights.service.TransactionCategory.RESTAURANTS;
+import static java.math.BigDecimal.valueOf;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties", properties = "insights.ingest.batch-size=1")
+@ActiveProfiles("test")
+public class MonthlyRollupConcurrencyTest {
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TransactionIngestService ingestService;
+
+    @DisplayName("two transactions writing the first spend for the same rollup row both commit into one row")
+    @Test
+    public void concurrentFirstSpendTest() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Louise"));
+        LocalDate thisMonth = YearMonth.now().atDay(1);
+        CountDownLatch firstFlushed = new CountDownLatch(1);
+        ExecutorService threads = newFixedThreadPool(2);
+
+        // When
+        Future<?> first = threads.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            transactRepository.saveAndFlush(new Transactions(null, valueOf(1050L, 2), thisMonth,
+                    "description", RESTAURANTS.toString(), "Nandos'", customer));
+            firstFlushed.countDown();
+            sleep();
+        }));
+        Future<?> second = threads.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            await(firstFlushed);
+            transactRepository.saveAndFlush(new Transactions(null, valueOf(2000L, 2), thisMonth,
+                    "description", RESTAURANTS.toString(), "Nandos'", customer));
+        }));
+        first.get(10, SECONDS);
+        second.get(10, SECONDS);
+        threads.shutdown();
+        List<MonthlySpend> rollups = rollupRepository.findMonthlySpendByCustomerId(customer.getId(),
+                yearMonthOf(thisMonth), yearMonthOf(thisMonth));
+
+        // Then
+        assertEquals(1, rollups.size());
+        assertEquals(0, valueOf(3050L, 2).compareTo(rollups.get(0).getTotal()));
+        assertEquals(2L, rollups.get(0).getCount());
+    }
+
+    @DisplayName("two ingests flushing the first spends of the same customers in opposite orders both commit")
+    @Test
+    public void concurrentIngestsInOppositeOrdersTest() throws Exception {
+        // Given
+        Customer louise = customerRepository.save(new Customer(null, "Louise"));
+        Customer tina = customerRepository.save(new Customer(null, "Tina"));
+        LocalDate thisMonth = YearMonth.now().atDay(1);
+        CountDownLatch ready = new CountDownLatch(2);
+        ExecutorService threads = newFixedThreadPool(2);
+
+        // When
+        Future<Integer> first = threads.submit(() -> {
+            ready.countDown();
+            await(ready);
+            return ingestService.ingest(List.of(spend(louise, thisMonth), spend(tina, thisMonth)));
+        });
+        Future<Integer> second = threads.submit(() -> {
+            ready.countDown();
+            await(ready);
+            return ingestService.ingest(List.of(spend(tina, thisMonth), spend(louise, thisMonth)));
+        });
+
+        // Then
+        assertEquals(2, first.get(10, SECONDS));
+        assertEquals(2, second.get(10, SECONDS));
+        threads.shutdown();
+        for (Customer customer : List.of(louise, tina)) {
+            List<MonthlySpend> rollups = rollupRepository.findMonthlySpendByCustomerId(customer.getId(),
+                    yearMonthOf(thisMonth), yearMonthOf(thisMonth));
+            assertEquals(1, rollups.size());
+            assertEquals(2L, rollups.get(0).getCount());
+        }
+    }
+
+    private static NewTransaction spend(Customer customer, LocalDate date) {
+        return new NewTransaction(customer.getId(), valueOf(1050L, 2), date, "description",
+                RESTAURANTS.toString(), "Nandos'");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Holds the first transaction open while the second writes the same rollup row.
+     */
+    private static void sleep() {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
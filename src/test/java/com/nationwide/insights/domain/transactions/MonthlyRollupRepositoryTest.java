@@ -0,0 +1,100 @@
+package com.nationwide.insights.domain.transactions;
+
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.service.MonthlyRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static com.nationwide.insights.domain.transactions.MonthlyRollup.yearMonthOf;
+import static com.nationwide.insights.service.TransactionCategory.BILL;
+import static com.nationwide.insights.service.TransactionCategory.RESTAURANTS;
+import static java.math.BigDecimal.valueOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-local.properties")
+@ActiveProfiles("test")
+public class MonthlyRollupRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MonthlyRollupService rollupService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Customer customer;
+    private LocalDate thisMonth;
+    private LocalDate lastMonth;
+
+    @BeforeEach
+    public void setup() {
+        customer = customerRepository.save(new Customer(null, "Louise"));
+        thisMonth = YearMonth.now().atDay(1);
+        lastMonth = thisMonth.minusMonths(1);
+    }
+
+    @DisplayName("saving, updating and deleting transactions keeps the monthly rollups the same as a rebuild")
+    @Test
+    public void rollupsFollowTransactionWritesTest() {
+        // Given
+        Transactions nandos = transactRepository.save(new Transactions(null, valueOf(1050L, 2), thisMonth,
+                "description", RESTAURANTS.toString(), "Nandos'", customer));
+        transactRepository.save(new Transactions(null, valueOf(2000L, 2), thisMonth,
+                "description", RESTAURANTS.toString(), "Nandos'", customer));
+        transactRepository.save(new Transactions(null, valueOf(6000L, 2), lastMonth,
+                "description", BILL.toString(), "Vodafone", customer));
+        Transactions moved = transactRepository.save(new Transactions(null, valueOf(3000L, 2), lastMonth,
+                "description", BILL.toString(), "Vodafone", customer));
+
+        // When
+        moved.setDate(thisMonth);
+        transactRepository.delete(nandos);
+        transactRepository.flush();
+        List<MonthlySpend> rollups = monthlySpend();
+
+        // Then
+        assertEquals(3, rollups.size());
+        assertMonthlySpend(rollups.get(0), lastMonth, "Vodafone", 6000L, 1L);
+        assertMonthlySpend(rollups.get(1), thisMonth, "Nandos'", 2000L, 1L);
+        assertMonthlySpend(rollups.get(2), thisMonth, "Vodafone", 3000L, 1L);
+        // And
+        String incremental = rollups.toString();
+        rollupService.rebuild();
+        entityManager.clear();
+        assertEquals(incremental, monthlySpend().toString());
+    }
+
+    private List<MonthlySpend> monthlySpend() {
+        return rollupRepository.findMonthlySpendByCustomerId(customer.getId(),
+                yearMonthOf(lastMonth), yearMonthOf(thisMonth));
+    }
+
+    private void assertMonthlySpend(MonthlySpend spend, LocalDate month, String vendor, long pence, long count) {
+        assertEquals(YearMonth.from(month), YearMonth.of(spend.getYear(), spend.getMonth()));
+        assertEquals(vendor, spend.getVendor());
+        assertEquals(0, valueOf(pence, 2).compareTo(spend.getTotal()));
+        assertEquals(count, spend.getCount());
+    }
+}
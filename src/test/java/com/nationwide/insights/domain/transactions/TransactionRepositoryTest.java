@@ -0,0 +1,76 @@
+package com.nationwide.insights.domain.transactions;
+
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static com.nationwide.insights.domain.transactions.MonthlyRollup.yearMonthOf;
+import static com.nationwide.insights.service.TransactionCategory.BILL;
+import static com.nationwide.insights.service.TransactionCategory.RESTAURANTS;
+import static java.math.BigDecimal.valueOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-local.properties")
+@ActiveProfiles("test")
+public class TransactionRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Customer customer;
+    private YearMonth thisMonth;
+
+    @BeforeEach
+    public void setup() {
+        customer = customerRepository.save(new Customer(null, "Louise"));
+        thisMonth = YearMonth.now();
+    }
+
+    @DisplayName("monthly spend sums each vendor and category per calendar month inside the range of months")
+    @Test
+    public void monthlySpendGroupsByVendorCategoryAndMonthTest() {
+        // Given
+        save(valueOf(1050L, 2), thisMonth.atDay(1), RESTAURANTS.toString(), "Nandos'");
+        save(valueOf(2000L, 2), thisMonth.atDay(1), RESTAURANTS.toString(), "Nandos'");
+        save(valueOf(6000L, 2), thisMonth.minusMonths(1).atDay(1), BILL.toString(), "Vodafone");
+        // And
+        save(valueOf(9900L, 2), thisMonth.minusMonths(24).atDay(1), BILL.toString(), "Vodafone");
+
+        // When
+        List<MonthlySpend> monthlySpend = transactRepository.findMonthlySpendByCustomerId(customer.getId(),
+                yearMonthOf(thisMonth.minusMonths(12).atDay(1)), yearMonthOf(thisMonth.atDay(1)));
+
+        // Then
+        assertEquals(2, monthlySpend.size());
+        MonthlySpend lastMonth = monthlySpend.get(0);
+        assertEquals("Vodafone", lastMonth.getVendor());
+        assertEquals(thisMonth.minusMonths(1), YearMonth.of(lastMonth.getYear(), lastMonth.getMonth()));
+        assertEquals(0, valueOf(6000L, 2).compareTo(lastMonth.getTotal()));
+        MonthlySpend restaurants = monthlySpend.get(1);
+        assertEquals("Nandos'", restaurants.getVendor());
+        assertEquals(RESTAURANTS.toString(), restaurants.getCategory());
+        assertEquals(0, valueOf(3050L, 2).compareTo(restaurants.getTotal()));
+        assertEquals(2L, restaurants.getCount());
+    }
+
+    private void save(BigDecimal amount, LocalDate date, String category, String vendor) {
+        transactRepository.save(new Transactions(null, amount, date, "description", category, vendor, customer));
+    }
+}
@@ -0,0 +1,62 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.nationwide.insights.service.TransactionCategory.BILL;
+import static java.math.BigDecimal.valueOf;
+import static java.time.LocalDate.now;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties",
+        properties = {"insights.bill-tracking.baseline=mean", "insights.bill-tracking.baseline-months=2"})
+@ActiveProfiles("test")
+public class BillBaselineTest {
+
+    @Autowired
+    private CustomerInsightsService service;
+
+    @MockBean
+    private TransactionRepository repository;
+
+    @DisplayName("previous bills £40 and £50 in the last two months average £45 whatever their order, a £10 bill four months ago is left out, latest bill £60. customer spent £15 more this month")
+    @Test
+    public void meanOfTrailingMonthsBaselineTest() {
+        // Given
+        Customer customer = new Customer(1L, "yanny");
+        LocalDate thisMonth = now();
+        List<Transactions> bills = asList(
+                bill(customer, 1L, 5000L, thisMonth.minusMonths(1)),
+                bill(customer, 2L, 6000L, thisMonth),
+                bill(customer, 3L, 1000L, thisMonth.minusMonths(4)),
+                bill(customer, 4L, 4000L, thisMonth.minusMonths(2)));
+        doReturn(bills.stream()).when(repository).streamByCustomerIdAndDateRange(eq(customer.getId()), any(), any());
+
+        // When
+        List<Insight> insights = service.customerInsightsById(customer.getId());
+
+        // Then
+        assertEquals(asList(new Insight("Your latest Vodafone bill is £15 more than previous months")), insights);
+    }
+
+    private Transactions bill(Customer customer, Long id, long pence, LocalDate date) {
+        return new Transactions(id, valueOf(pence, 2), date, "blah", BILL.toString(), "Vodafone", customer);
+    }
+}
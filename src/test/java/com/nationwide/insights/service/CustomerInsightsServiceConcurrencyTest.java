@@ -0,0 +1,91 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.nationwide.insights.service.TransactionCategory.BILL;
+import static com.nationwide.insights.service.TransactionCategory.RESTAURANTS;
+import static java.lang.String.format;
+import static java.math.BigDecimal.valueOf;
+import static java.time.LocalDate.now;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties")
+@ActiveProfiles("test")
+public class CustomerInsightsServiceConcurrencyTest {
+    private static final int CUSTOMERS = 200;
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 10_000;
+
+    @Autowired
+    CustomerInsightsService service;
+
+    @MockBean
+    private TransactionRepository repository;
+
+    @DisplayName("concurrent requests for many customers each return only that customer's insights")
+    @Test
+    public void concurrentRequestsDoNotShareStateTest() throws Exception {
+        // Given
+        doAnswer(invocation -> transactionsOf(invocation.getArgument(0)).stream())
+                .when(repository).streamByCustomerIdAndDateRange(any(), any(), any());
+        List<Callable<Long>> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            long customerId = i % CUSTOMERS + 1;
+            requests.add(() -> {
+                assertEquals(expectedInsightsOf(customerId), service.customerInsightsById(customerId));
+                return customerId;
+            });
+        }
+
+        // When
+        ExecutorService executor = newFixedThreadPool(THREADS);
+        try {
+            List<Future<Long>> responses = executor.invokeAll(requests);
+
+            // Then
+            for (Future<Long> response : responses) {
+                response.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Transactions> transactionsOf(Long customerId) {
+        Customer customer = new Customer(customerId, "customer " + customerId);
+        LocalDate thisMonth = now();
+        String vendor = "Vodafone " + customerId;
+        return asList(
+                new Transactions(1L, valueOf(10000L, 2), thisMonth.minusMonths(1), "", BILL.toString(), vendor, customer),
+                new Transactions(2L, valueOf(10000L + customerId * 100, 2), thisMonth, "", BILL.toString(), vendor, customer),
+                new Transactions(3L, valueOf(customerId * 100, 2), thisMonth, "", RESTAURANTS.toString(), "Nandos'", customer));
+    }
+
+    private List<Insight> expectedInsightsOf(long customerId) {
+        return asList(
+                new Insight(format("Your latest Vodafone %d bill is £%d more than previous months", customerId, customerId)),
+                new Insight(format("You've spent £%d in restaurants this month", customerId)));
+    }
+}
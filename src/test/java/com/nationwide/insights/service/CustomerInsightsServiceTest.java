@@ -5,6 +5,7 @@ import com.nationwide.insights.domain.Insight;
 import com.nationwide.insights.domain.customer.Customer;
 import com.nationwide.insights.domain.transactions.TransactionRepository;
 import com.nationwide.insights.domain.transactions.Transactions;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,19 +27,26 @@ import static java.math.BigDecimal.valueOf;
 import static java.time.LocalDate.now;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 
 @SpringBootTest
 @TestPropertySource(locations = "classpath:application-local.properties")
 @ActiveProfiles("test")
 public class CustomerInsightsServiceTest {
+    private static final long SLOW_WRITE_MILLIS = 100L;
 
     @Autowired
     CustomerInsightsService service;
 
+    @Autowired
+    private MeterRegistry registry;
+
     @MockBean
     private TransactionRepository repository;
     private LocalDate lastMonth;
@@ -78,7 +86,7 @@ public class CustomerInsightsServiceTest {
                 sameCategory,
                 "Another restaurant", // And
                 customer);
-        doReturn(asList(restaurantOne, restaurantTwo, restaurantThree)).when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(restaurantOne, restaurantTwo, restaurantThree).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -103,7 +111,7 @@ public class CustomerInsightsServiceTest {
                 blah,
                 customer);
 
-        doReturn(asList(irrelevant)).when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(irrelevant).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -142,7 +150,7 @@ public class CustomerInsightsServiceTest {
                 CAFES.toString(), // And
                 "new vendor",
                 customer);
-        doReturn(asList(restaurantOne, restaurantTwo, cafeOne)).when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(restaurantOne, restaurantTwo, cafeOne).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -181,7 +189,7 @@ public class CustomerInsightsServiceTest {
                 sameVendor,
                 customer);
 
-        doReturn(asList(lastMonthsBill, latestLowerBill)).when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(lastMonthsBill, latestLowerBill).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -224,7 +232,7 @@ public class CustomerInsightsServiceTest {
                 sameVendor,
                 customer);
 
-        doReturn(asList(twoMonthsAgo, oneMonthAgo, latestLowerBill)).when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(twoMonthsAgo, oneMonthAgo, latestLowerBill).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -259,7 +267,7 @@ public class CustomerInsightsServiceTest {
                 sameVendor,
                 customer);
 
-        doReturn(asList(latestHigherBill, bill)).when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(latestHigherBill, bill).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -302,7 +310,7 @@ public class CustomerInsightsServiceTest {
                 sameVendor,
                 customer);
 
-        doReturn(asList(twoMonthsAgo, oneMonthAgo, latestLowerBill)).when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(twoMonthsAgo, oneMonthAgo, latestLowerBill).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -358,7 +366,7 @@ public class CustomerInsightsServiceTest {
 
 
         doReturn(asList(
-                bill, food, thisMonthsBillHigher, thisMonthsFoodLower)).when(repository).findAllByCustomerId(customerId);
+                bill, food, thisMonthsBillHigher, thisMonthsFoodLower).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -393,8 +401,8 @@ public class CustomerInsightsServiceTest {
                 vodafone,
                 customer);
 
-        doReturn(asList(vodafoneOne, vodafoneTwo))
-                .when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(vodafoneOne, vodafoneTwo).stream())
+                .when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -435,8 +443,8 @@ public class CustomerInsightsServiceTest {
                 vodafone,
                 customer);
 
-        doReturn(asList(oneMonthAgo, twoMonthAgo, thisMonthSame))
-                .when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(oneMonthAgo, twoMonthAgo, thisMonthSame).stream())
+                .when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -475,8 +483,8 @@ public class CustomerInsightsServiceTest {
                 "relevant",
                 customer);
 
-        doReturn(asList(relevantTransaction, irrelevantOne, irrelevantTwo))
-                .when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(relevantTransaction, irrelevantOne, irrelevantTwo).stream())
+                .when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -517,7 +525,7 @@ public class CustomerInsightsServiceTest {
                 vodafone,
                 customer);
 
-        doReturn(asList(twoMonthsAgo, oneMonthAgo, thisMonthBill)).when(repository).findAllByCustomerId(customerId);
+        doReturn(asList(twoMonthsAgo, oneMonthAgo, thisMonthBill).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
 
         // When
         List<Insight> spendingInsights = service.customerInsightsById(customerId);
@@ -526,16 +534,123 @@ public class CustomerInsightsServiceTest {
         assertEquals(asList(new Insight("Your latest Vodafone bill is £50 more than previous months")), spendingInsights);
     }
 
+    @DisplayName("previous bills £50.01 and £50.00 average up to £50.01, latest bill £100.50. customer spent £50 more this month")
+    @Test
+    public void averageOfPreviousBillsRoundsUpToThePennyTest() {
+        // Given
+        Customer customer = new Customer(1L, "yanny");
+        long customerId = customer.getId();
+        String vodafone = "Vodafone";
+        String blah = "blah";
+        String sameCategory = BILL.toString();
+
+        Transactions twoMonthsAgo = new Transactions(1L,
+                valueOf(5001L, 2), // And
+                lastMonth.minusMonths(1),
+                blah,
+                sameCategory,
+                vodafone,
+                customer);
+        Transactions oneMonthAgo = new Transactions(2L,
+                valueOf(5000L, 2), // And
+                lastMonth,
+                blah,
+                sameCategory,
+                vodafone,
+                customer);
+        Transactions thisMonthBill = new Transactions(3L,
+                valueOf(10050L, 2), // And
+                thisMonth,
+                blah,
+                sameCategory,
+                vodafone,
+                customer);
+
+        doReturn(asList(twoMonthsAgo, oneMonthAgo, thisMonthBill).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
+
+        // When
+        List<Insight> spendingInsights = service.customerInsightsById(customerId);
+
+        // Then
+        assertEquals(asList(new Insight("Your latest Vodafone bill is £50 more than previous months")), spendingInsights);
+    }
+
+    @DisplayName("each stage is timed and insights are counted by type")
+    @Test
+    public void stagesTimedAndInsightsCountedByTypeTest() {
+        // Given
+        Customer customer = new Customer(1L, "yanny");
+        long customerId = customer.getId();
+        Transactions lunch = new Transactions(1L,
+                valueOf(1500L, 2),
+                thisMonth,
+                "",
+                RESTAURANTS.toString(),
+                "Bob's Burgers",
+                customer);
+        doReturn(asList(lunch).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
+        double spendByCategoryInsights = registry.counter("insights.produced", "type", "SPEND_BY_CATEGORY").count();
+        long fetches = registry.timer("insights.stage", "stage", "fetch").count();
+        long billTrackings = registry.timer("insights.stage", "stage", "bill-tracking").count();
+
+        // When
+        service.customerInsightsById(customerId);
+
+        // Then
+        assertEquals(spendByCategoryInsights + 1, registry.counter("insights.produced", "type", "SPEND_BY_CATEGORY").count());
+        assertEquals(fetches + 1, registry.timer("insights.stage", "stage", "fetch").count());
+        assertEquals(billTrackings + 1, registry.timer("insights.stage", "stage", "bill-tracking").count());
+    }
+
+    @DisplayName("producer stages leave out the time spent handing their insights on")
+    @Test
+    public void producerStagesExcludeHandingOnTest() {
+        // Given
+        Customer customer = new Customer(1L, "yanny");
+        long customerId = customer.getId();
+        Transactions lunch = new Transactions(1L,
+                valueOf(1500L, 2),
+                thisMonth,
+                "",
+                RESTAURANTS.toString(),
+                "Bob's Burgers",
+                customer);
+        doReturn(asList(lunch).stream()).when(repository).streamByCustomerIdAndDateRange(eq(customerId), any(), any());
+        double spendByCategory = registry.timer("insights.stage", "stage", "spend-by-category").totalTime(MILLISECONDS);
+        double billTracking = registry.timer("insights.stage", "stage", "bill-tracking").totalTime(MILLISECONDS);
+
+        // When
+        service.customerInsightsById(customerId, insight -> sleep(SLOW_WRITE_MILLIS));
+
+        // Then
+        assertTrue(registry.timer("insights.stage", "stage", "spend-by-category").totalTime(MILLISECONDS)
+                - spendByCategory < SLOW_WRITE_MILLIS);
+        assertTrue(registry.timer("insights.stage", "stage", "bill-tracking").totalTime(MILLISECONDS)
+                - billTracking < SLOW_WRITE_MILLIS);
+    }
+
     @DisplayName("transaction not found when customer with requested id not found")
     @Test
     public void transactionNotFoundTest() {
         // Given
         long customerDoesNotExist = 99L;
+        double notFound = registry.counter("insights.transactions.not-found").count();
 
         // When
         TransactionNotFoundException exception = assertThrows(TransactionNotFoundException.class, () ->
                 service.customerInsightsById(customerDoesNotExist));
 
         assertEquals(format("Customer with id %d not found", customerDoesNotExist), exception.getMessage());
+        // And
+        assertEquals(notFound + 1, registry.counter("insights.transactions.not-found").count());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
     }
-}
\ No newline at end of file
+}
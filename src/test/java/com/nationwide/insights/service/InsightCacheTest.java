@@ -0,0 +1,159 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import com.nationwide.insights.domain.transactions.TransactionsVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static com.nationwide.insights.service.TransactionCategory.CAFES;
+import static com.nationwide.insights.service.TransactionCategory.RESTAURANTS;
+import static java.math.BigDecimal.valueOf;
+import static java.time.LocalDate.now;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties")
+@ActiveProfiles("test")
+public class InsightCacheTest {
+
+    @Autowired
+    private InsightCache cache;
+
+    @Autowired
+    private CustomerInsightsService service;
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @DisplayName("repeat requests are served from the cache until one of the customer's transactions is saved")
+    @Test
+    public void cachedUntilTransactionsChangeTest() {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Tina"));
+        save(customer, 2500L, CAFES.toString(), "Starbucks");
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+
+        // When
+        List<Insight> first = cache.get(customer.getId(), now(), versionOf(customer), service::customerInsightsById);
+        List<Insight> second = cache.get(customer.getId(), now(), versionOf(customer), service::customerInsightsById);
+        save(customer, 1500L, RESTAURANTS.toString(), "Nandos'");
+        List<Insight> afterWrite = cache.get(customer.getId(), now(), versionOf(customer),
+                service::customerInsightsById);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(singletonList(new Insight("You've spent £25 in cafes this month")), first);
+        assertEquals(2, afterWrite.size());
+        assertEquals(hits + 1, cache.getHitCount());
+        assertEquals(misses + 2, cache.getMissCount());
+    }
+
+    @DisplayName("insights as of another day are cached apart")
+    @Test
+    public void cachedPerDayTest() {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Tina"));
+        save(customer, 2500L, CAFES.toString(), "Starbucks");
+
+        // When
+        List<Insight> today = cache.get(customer.getId(), now(), versionOf(customer), service::customerInsightsById);
+        List<Insight> tomorrow = cache.get(customer.getId(), now().plusDays(1), versionOf(customer),
+                id -> emptyList());
+
+        // Then
+        assertEquals(singletonList(new Insight("You've spent £25 in cafes this month")), today);
+        assertEquals(emptyList(), tomorrow);
+        assertSame(today, cache.get(customer.getId(), now(), versionOf(customer), service::customerInsightsById));
+    }
+
+    @DisplayName("insights cached at an older version are worked out again rather than served with a later version's ETag")
+    @Test
+    public void cachedAtOlderVersionReplacedTest() {
+        // Given
+        Long id = 1_000_000L;
+        List<Insight> before = singletonList(new Insight("You've spent £25 in cafes this month"));
+        List<Insight> after = singletonList(new Insight("You've spent £40 in cafes this month"));
+        cache.get(id, now(), version(1L, 10L), customerId -> before);
+
+        // When
+        List<Insight> afterWrite = cache.get(id, now(), version(2L, 11L), customerId -> after);
+
+        // Then
+        assertSame(after, afterWrite);
+        assertSame(after, cache.get(id, now(), version(2L, 11L), customerId -> emptyList()));
+    }
+
+    @DisplayName("insights expire at the start of the next day, since the windows move on daily")
+    @Test
+    public void expiresAtNextDayTest() {
+        // Given
+        ZonedDateTime lateOnThe15th = ZonedDateTime.of(2021, 3, 15, 23, 0, 0, 0, ZoneId.of("Europe/London"));
+
+        // When
+        Duration untilEndOfDay = InsightCache.untilEndOf(lateOnThe15th.toLocalDate(), lateOnThe15th);
+
+        // Then
+        assertEquals(Duration.ofHours(1), untilEndOfDay);
+    }
+
+    @DisplayName("insights worked out as of a day already over expire straight away")
+    @Test
+    public void loadFinishedAfterMidnightExpiresTest() {
+        // Given
+        ZonedDateTime justAfterMidnight = ZonedDateTime.of(2021, 3, 16, 0, 0, 1, 0, ZoneId.of("Europe/London"));
+
+        // When
+        Duration untilEndOfDay = InsightCache.untilEndOf(LocalDate.of(2021, 3, 15), justAfterMidnight);
+
+        // Then
+        assertEquals(Duration.ZERO, untilEndOfDay);
+    }
+
+    private TransactionsVersion versionOf(Customer customer) {
+        return transactRepository.findVersionByCustomerId(customer.getId());
+    }
+
+    private static TransactionsVersion version(Long count, Long maxId) {
+        return new TransactionsVersion() {
+            @Override
+            public Long getCustomerId() {
+                return null;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+
+            @Override
+            public Long getMaxId() {
+                return maxId;
+            }
+        };
+    }
+
+    private void save(Customer customer, long pence, String category, String vendor) {
+        transactRepository.save(new Transactions(null, valueOf(pence, 2), now(), "description", category, vendor, customer));
+    }
+}
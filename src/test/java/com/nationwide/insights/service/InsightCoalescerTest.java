@@ -0,0 +1,129 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.transactions.TransactionsVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.nationwide.insights.service.CustomerInsightsService.ALL_INSIGHT_TYPES;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties")
+@ActiveProfiles("test")
+public class InsightCoalescerTest {
+
+    @Autowired
+    private InsightCoalescer coalescer;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @DisplayName("a request arriving while the same insights are worked out waits for them instead of working them out again")
+    @Test
+    public void concurrentRequestsShareOneComputationTest() throws Exception {
+        // Given
+        LocalDate today = LocalDate.of(2021, 2, 28);
+        List<Insight> insights = singletonList(new Insight("You've spent £25 in cafes this month"));
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        double coalesced = registry.counter("insights.coalesced").count();
+        CompletableFuture<List<Insight>> first = supplyAsync(() -> coalescer.get(1L, today, ALL_INSIGHT_TYPES,
+                version(1L, 10L), () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return insights;
+                }));
+        while (coalescer.getInFlight() == 0) {
+            Thread.sleep(1);
+        }
+
+        // When
+        CompletableFuture<List<Insight>> second = supplyAsync(() -> coalescer.get(1L, today, ALL_INSIGHT_TYPES,
+                version(1L, 10L), () -> {
+                    computations.incrementAndGet();
+                    return insights;
+                }));
+        while (registry.counter("insights.coalesced").count() == coalesced) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Then
+        assertSame(insights, first.get(5, SECONDS));
+        assertSame(insights, second.get(5, SECONDS));
+        assertEquals(1, computations.get());
+        assertEquals(0, coalescer.getInFlight());
+    }
+
+    @DisplayName("a request that read a later version works its insights out rather than wait for older ones")
+    @Test
+    public void laterVersionNotSharedTest() throws Exception {
+        // Given
+        LocalDate today = LocalDate.of(2021, 2, 28);
+        List<Insight> before = singletonList(new Insight("You've spent £25 in cafes this month"));
+        List<Insight> after = singletonList(new Insight("You've spent £40 in cafes this month"));
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Insight>> first = supplyAsync(() -> coalescer.get(2L, today, ALL_INSIGHT_TYPES,
+                version(1L, 10L), () -> {
+                    await(release);
+                    return before;
+                }));
+        while (coalescer.getInFlight() == 0) {
+            Thread.sleep(1);
+        }
+
+        try {
+            // When
+            List<Insight> second = coalescer.get(2L, today, ALL_INSIGHT_TYPES, version(2L, 11L), () -> after);
+
+            // Then
+            assertSame(after, second);
+        } finally {
+            release.countDown();
+        }
+        assertSame(before, first.get(5, SECONDS));
+    }
+
+    private static TransactionsVersion version(Long count, Long maxId) {
+        return new TransactionsVersion() {
+            @Override
+            public Long getCustomerId() {
+                return null;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+
+            @Override
+            public Long getMaxId() {
+                return maxId;
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
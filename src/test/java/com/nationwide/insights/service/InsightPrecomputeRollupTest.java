@@ -0,0 +1,66 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static com.nationwide.insights.service.TransactionCategory.BILL;
+import static com.nationwide.insights.service.TransactionCategory.CAFES;
+import static java.math.BigDecimal.valueOf;
+import static java.time.LocalDate.now;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties",
+        properties = {"insights.aggregation=rollup", "insights.precomputed.enabled=true"})
+@ActiveProfiles("test")
+public class InsightPrecomputeRollupTest {
+
+    @Autowired
+    private InsightPrecomputeService precomputeService;
+
+    @Autowired
+    private PrecomputedInsightStore store;
+
+    @Autowired
+    private CustomerInsightsService service;
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @DisplayName("in rollup mode the precomputed insights are the calendar-month ones a request works out")
+    @Test
+    public void precomputedFromMonthlySpendTest() {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Tina"));
+        save(customer, 5000L, now().minusMonths(2), BILL.toString(), "Vodafone");
+        save(customer, 6000L, now().minusMonths(1), BILL.toString(), "Vodafone");
+        save(customer, 7000L, now(), BILL.toString(), "Vodafone");
+        save(customer, 2500L, now().minusMonths(1).plusDays(1), CAFES.toString(), "Starbucks");
+        save(customer, 1500L, now().withDayOfMonth(1), CAFES.toString(), "Starbucks");
+
+        // When
+        precomputeService.precomputeAll(now());
+
+        // Then
+        assertEquals(Optional.of(service.customerInsightsById(customer.getId())),
+                store.find(customer.getId(), now()));
+    }
+
+    private void save(Customer customer, long pence, LocalDate date, String category, String vendor) {
+        transactRepository.save(new Transactions(null, valueOf(pence, 2), date, "description", category, vendor, customer));
+    }
+}
@@ -0,0 +1,101 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.domain.insights.PrecomputedInsights;
+import com.nationwide.insights.domain.insights.PrecomputedInsightsRepository;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static com.nationwide.insights.service.TransactionCategory.CAFES;
+import static com.nationwide.insights.service.TransactionCategory.RESTAURANTS;
+import static java.math.BigDecimal.valueOf;
+import static java.time.LocalDate.now;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties",
+        properties = {"insights.precomputed.enabled=true", "insights.precompute.chunk-size=2"})
+@ActiveProfiles("test")
+public class InsightPrecomputeServiceTest {
+
+    @Autowired
+    private InsightPrecomputeService precomputeService;
+
+    @Autowired
+    private PrecomputedInsightStore store;
+
+    @Autowired
+    private PrecomputedInsightsRepository precomputedRepository;
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @DisplayName("every customer's insights are precomputed and served from the table until their transactions change")
+    @Test
+    public void precomputedInsightsServedUntilTransactionsChangeTest() {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Tina"));
+        Customer withoutTransactions = customerRepository.save(new Customer(null, "Louise"));
+        save(customer, 2500L, CAFES.toString(), "Starbucks");
+
+        // When
+        int customers = precomputeService.precomputeAll(now());
+
+        // Then
+        assertEquals(customerRepository.count(), customers);
+        assertFalse(precomputedRepository.existsById(withoutTransactions.getId()));
+        assertEquals(Optional.of(singletonList(new Insight("You've spent £25 in cafes this month"))),
+                store.find(customer.getId(), now()));
+        // And
+        PrecomputedInsights stored = precomputedRepository.findById(customer.getId()).orElseThrow();
+        stored.setInsights("[{\"insight\":\"precomputed\"}]");
+        precomputedRepository.save(stored);
+        assertEquals(Optional.of(singletonList(new Insight("precomputed"))), store.find(customer.getId(), now()));
+        assertTrue(store.find(customer.getId(), now().plusDays(1)).isEmpty());
+        // And
+        save(customer, 1500L, RESTAURANTS.toString(), "Nandos'");
+        assertTrue(store.find(customer.getId(), now()).isEmpty());
+    }
+
+    @DisplayName("precomputing leaves the request metrics alone")
+    @Test
+    public void precomputeNotRecordedAsRequestsTest() {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Tina"));
+        save(customer, 2500L, CAFES.toString(), "Starbucks");
+        double produced = registry.counter("insights.produced", "type", "SPEND_BY_CATEGORY").count();
+        long spendByCategory = registry.timer("insights.stage", "stage", "spend-by-category").count();
+
+        // When
+        precomputeService.precomputeAll(now());
+
+        // Then
+        assertEquals(produced, registry.counter("insights.produced", "type", "SPEND_BY_CATEGORY").count());
+        assertEquals(spendByCategory, registry.timer("insights.stage", "stage", "spend-by-category").count());
+    }
+
+    private void save(Customer customer, long pence, String category, String vendor) {
+        transactRepository.save(new Transactions(null, valueOf(pence, 2), LocalDate.now(), "description", category, vendor, customer));
+    }
+}
@@ -0,0 +1,130 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.transactions.MonthlySpend;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static com.nationwide.insights.service.CustomerInsightsService.CURRENT_MONTH;
+import static com.nationwide.insights.service.CustomerInsightsService.windowStart;
+import static com.nationwide.insights.service.TransactionCategory.BILL;
+import static com.nationwide.insights.service.TransactionCategory.RESTAURANTS;
+import static java.math.BigDecimal.valueOf;
+import static java.time.LocalDate.now;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties")
+@ActiveProfiles("test")
+public class InsightProducerTest {
+
+    @Autowired
+    private CustomerInsightsService service;
+
+    @MockBean
+    private TransactionRepository repository;
+
+    @TestConfiguration
+    static class IncomeProducerConfig {
+
+        @Bean
+        @Order(3)
+        IInsightProducer incomeProducer() {
+            return new IInsightProducer() {
+                @Override
+                public Set<InsightType> types() {
+                    return EnumSet.of(InsightType.INCOME);
+                }
+
+                @Override
+                public long monthsBack() {
+                    return CURRENT_MONTH;
+                }
+
+                @Override
+                public String stage() {
+                    return "income";
+                }
+
+                @Override
+                public void fromTransactions(List<Transactions> transactions,
+                                             BiConsumer<InsightType, Insight> insights) {
+                    insights.accept(InsightType.INCOME,
+                            new Insight(transactions.size() + " transactions this month"));
+                }
+
+                @Override
+                public void fromColumns(TransactionColumns columns, int fromRow, int toRow,
+                                        BiConsumer<InsightType, Insight> insights) {
+                    insights.accept(InsightType.INCOME, new Insight((toRow - fromRow) + " transactions this month"));
+                }
+
+                @Override
+                public void fromMonthlySpend(List<MonthlySpend> monthlySpend,
+                                             BiConsumer<InsightType, Insight> insights) {
+                    insights.accept(InsightType.INCOME, new Insight(monthlySpend.size() + " totals this month"));
+                }
+            };
+        }
+    }
+
+    @DisplayName("a producer bean of its own runs after bill tracking and spend by category, seeing only this month's transactions")
+    @Test
+    public void producerBeanRunsInOrderTest() {
+        // Given
+        Customer customer = new Customer(1L, "yanny");
+        LocalDate thisMonth = now();
+        List<Transactions> transactions = asList(
+                new Transactions(1L, valueOf(5000L, 2), thisMonth.minusMonths(1), "", BILL.toString(), "Vodafone", customer),
+                new Transactions(2L, valueOf(6000L, 2), thisMonth, "", BILL.toString(), "Vodafone", customer),
+                new Transactions(3L, valueOf(1500L, 2), thisMonth, "", RESTAURANTS.toString(), "Bob's Burgers", customer));
+        doReturn(transactions.stream()).when(repository).streamByCustomerIdAndDateRange(eq(customer.getId()), any(), any());
+
+        // When
+        List<Insight> insights = service.customerInsightsById(customer.getId());
+
+        // Then
+        assertEquals(asList(
+                new Insight("Your latest Vodafone bill is £10 more than previous months"),
+                new Insight("You've spent £15 in restaurants this month"),
+                new Insight("2 transactions this month")), insights);
+    }
+
+    @DisplayName("asking only for the producer's type reads only the months it needs")
+    @Test
+    public void producerWindowTest() {
+        // Given
+        Customer customer = new Customer(1L, "yanny");
+        LocalDate today = now();
+        Transactions lunch = new Transactions(1L, valueOf(1500L, 2), today, "", RESTAURANTS.toString(), "Bob's Burgers", customer);
+        doReturn(asList(lunch).stream()).when(repository)
+                .streamByCustomerIdAndDateRange(eq(customer.getId()), eq(windowStart(CURRENT_MONTH, today)), any());
+
+        // When
+        List<Insight> insights = service.customerInsightsById(customer.getId(), today, EnumSet.of(InsightType.INCOME));
+
+        // Then
+        assertEquals(asList(new Insight("1 transactions this month")), insights);
+    }
+}
@@ -0,0 +1,28 @@
+package com.nationwide.insights.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class InsightTemplateTest {
+
+    @DisplayName("fields are parsed the same under a Turkish default locale")
+    @Test
+    public void parsesUnderTurkishLocaleTest() {
+        // Given
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            // When
+            InsightTemplate template = InsightTemplate.parse("Your {vendor} bill is £{amount} {direction}");
+
+            // Then
+            assertEquals("Your Vodafone bill is £50 higher", template.render("Vodafone", "bill", 5000L, "higher"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.nationwide.insights.service.CustomerInsightsService.CURRENT_MONTH;
+import static com.nationwide.insights.service.TransactionCategory.BILL;
+import static com.nationwide.insights.service.TransactionCategory.CAFES;
+import static com.nationwide.insights.service.TransactionCategory.RESTAURANTS;
+import static java.math.BigDecimal.valueOf;
+import static java.time.LocalDate.now;
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties",
+        properties = {"insights.parallel.enabled=true", "insights.parallel.threshold-rows=100",
+                "insights.parallel.parallelism=2"})
+@ActiveProfiles("test")
+public class ParallelAggregationTest {
+
+    @Autowired
+    private CustomerInsightsService service;
+
+    @Autowired
+    private ParallelAggregation parallel;
+
+    @MockBean
+    private TransactionRepository repository;
+
+    @DisplayName("a window over the row threshold is split between threads and gives the insights one thread would")
+    @Test
+    public void splitWindowGivesSameInsightsTest() {
+        // Given
+        Customer customer = new Customer(1L, "yanny");
+        List<Transactions> transactions = windowOf(customer, now(), 300, 0);
+        doAnswer(invocation -> transactions.stream()).when(repository)
+                .streamByCustomerIdAndDateRange(eq(customer.getId()), any(), any());
+        List<Insight> expected = new ArrayList<>();
+        new BillTracking(new InsightGenerator()).fromTransactions(transactions, (type, insight) -> expected.add(insight));
+        long parallelWindows = parallel.getParallelWindows();
+
+        // When
+        List<Insight> insights = service.customerInsightsById(customer.getId());
+
+        // Then
+        assertEquals(expected, insights.subList(0, expected.size()));
+        assertEquals(parallelWindows + 1, parallel.getParallelWindows());
+    }
+
+    @DisplayName("a month over the row threshold splits spend by category too and gives every insight one thread would")
+    @Test
+    public void splitMonthGivesSameInsightsTest() {
+        // Given
+        Customer customer = new Customer(2L, "yanny");
+        LocalDate today = now();
+        List<Transactions> transactions = windowOf(customer, today, 300, 150);
+        doAnswer(invocation -> transactions.stream()).when(repository)
+                .streamByCustomerIdAndDateRange(eq(customer.getId()), any(), any());
+        long parallelWindows = parallel.getParallelWindows();
+
+        // When
+        List<Insight> insights = service.customerInsightsById(customer.getId());
+
+        // Then
+        assertEquals(sequentialInsightsOf(transactions, today), insights);
+        assertEquals(parallelWindows + 2, parallel.getParallelWindows());
+    }
+
+    /**
+     * {@code rows} transactions spread over this month and the five before it, then {@code rowsToday} more dated
+     * today, across 30 vendors in three categories, in date order.
+     */
+    static List<Transactions> windowOf(Customer customer, LocalDate today, int rows, int rowsToday) {
+        String[] categories = {BILL.toString(), RESTAURANTS.toString(), CAFES.toString()};
+        List<Transactions> transactions = new ArrayList<>();
+        for (long id = 1L; id <= rows + rowsToday; id++) {
+            int vendor = (int) (id % 30);
+            LocalDate date = id <= rows ? today.minusMonths(id % 6) : today;
+            transactions.add(new Transactions(id, valueOf(100L * (id % 17 + 1), 2),
+                    date, "", categories[vendor % 3], "vendor-" + vendor, customer));
+        }
+        transactions.sort(comparing(Transactions::getDate));
+        return transactions;
+    }
+
+    /**
+     * The insights bill tracking and spend by category give on one thread, in producer order.
+     */
+    static List<Insight> sequentialInsightsOf(List<Transactions> window, LocalDate today) {
+        int[] days = CustomerInsightsService.daysFromThisMth(CURRENT_MONTH, today);
+        List<Transactions> thisMonth = window.stream()
+                .filter(transact -> transact.getDate().toEpochDay() >= days[0]
+                        && transact.getDate().toEpochDay() < days[1])
+                .collect(toList());
+        List<Insight> insights = new ArrayList<>();
+        new BillTracking(new InsightGenerator()).fromTransactions(window, (type, insight) -> insights.add(insight));
+        new SpendByCategory().fromTransactions(thisMonth, (type, insight) -> insights.add(insight));
+        return insights;
+    }
+}
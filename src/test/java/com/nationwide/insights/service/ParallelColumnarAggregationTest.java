@@ -0,0 +1,62 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.nationwide.insights.service.ParallelAggregationTest.sequentialInsightsOf;
+import static com.nationwide.insights.service.ParallelAggregationTest.windowOf;
+import static java.time.LocalDate.now;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties",
+        properties = {"insights.aggregation=columnar", "insights.parallel.enabled=true",
+                "insights.parallel.threshold-rows=100", "insights.parallel.parallelism=2"})
+@ActiveProfiles("test")
+public class ParallelColumnarAggregationTest {
+
+    @Autowired
+    private CustomerInsightsService service;
+
+    @Autowired
+    private ParallelAggregation parallel;
+
+    @MockBean
+    private TransactionRepository repository;
+
+    @DisplayName("columns over the row threshold are split between threads and give every insight one thread would")
+    @Test
+    public void splitColumnsGiveSameInsightsTest() {
+        // Given
+        Customer customer = new Customer(1L, "yanny");
+        LocalDate today = now();
+        List<Transactions> transactions = windowOf(customer, today, 300, 150);
+        doAnswer(invocation -> transactions.stream()
+                .map(transact -> new Object[]{transact.getDate(), transact.getAmount(), transact.getVendor(),
+                        transact.getCategory()}))
+                .when(repository).streamColumnsByCustomerIdAndDateRange(eq(customer.getId()), any(), any());
+        long parallelWindows = parallel.getParallelWindows();
+
+        // When
+        List<Insight> insights = service.customerInsightsById(customer.getId());
+
+        // Then
+        assertEquals(sequentialInsightsOf(transactions, today), insights);
+        assertEquals(parallelWindows + 2, parallel.getParallelWindows());
+    }
+}
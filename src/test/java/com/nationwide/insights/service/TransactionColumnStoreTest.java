@@ -0,0 +1,112 @@
+package com.nationwide.insights.service;
+
+import com.nationwide.insights.domain.CustomerInsights;
+import com.nationwide.insights.domain.Insight;
+import com.nationwide.insights.domain.customer.Customer;
+import com.nationwide.insights.domain.customer.CustomerRepository;
+import com.nationwide.insights.domain.transactions.TransactionRepository;
+import com.nationwide.insights.domain.transactions.Transactions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.nationwide.insights.service.TransactionCategory.BILL;
+import static com.nationwide.insights.service.TransactionCategory.CAFES;
+import static com.nationwide.insights.service.TransactionCategory.RESTAURANTS;
+import static java.math.BigDecimal.valueOf;
+import static java.time.LocalDate.now;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-local.properties", properties = "insights.aggregation=columnar")
+@ActiveProfiles("test")
+public class TransactionColumnStoreTest {
+
+    @Autowired
+    private TransactionColumnStore columnStore;
+
+    @Autowired
+    private CustomerInsightsService service;
+
+    @Autowired
+    private TransactionRepository transactRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @DisplayName("insights are worked out from the customer's columns, loaded once and reloaded after a write")
+    @Test
+    public void insightsFromColumnsFollowWritesTest() {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Louise"));
+        save(customer, 5000L, now().minusMonths(2), BILL.toString(), "Vodafone");
+        save(customer, 5000L, now().minusMonths(1), BILL.toString(), "Vodafone");
+        save(customer, 7000L, now(), BILL.toString(), "Vodafone");
+        save(customer, 400000L, now(), RESTAURANTS.toString(), "Nandos'");
+        long misses = columnStore.getMissCount();
+
+        // When
+        List<Insight> first = service.customerInsightsById(customer.getId());
+        List<Insight> second = service.customerInsightsById(customer.getId());
+        save(customer, 1500L, now(), RESTAURANTS.toString(), "Wagamama");
+        List<Insight> afterWrite = service.customerInsightsById(customer.getId());
+
+        // Then
+        assertEquals(asList(
+                new Insight("Your latest Vodafone bill is £20 more than previous months"),
+                new Insight("You've spent £4000 in restaurants this month")), first);
+        assertEquals(first, second);
+        assertEquals(asList(
+                new Insight("Your latest Vodafone bill is £20 more than previous months"),
+                new Insight("You've spent £4015 in restaurants this month")), afterWrite);
+        assertEquals(misses + 2, columnStore.getMissCount());
+        assertEquals(5, columnStore.get(customer.getId()).size());
+    }
+
+    @DisplayName("a batch loads the columns of every customer not held, and a customer without transactions gets 404")
+    @Test
+    public void batchFromColumnsTest() {
+        // Given
+        Customer customer = customerRepository.save(new Customer(null, "Tina"));
+        save(customer, 2500L, now(), CAFES.toString(), "Starbucks");
+        long unknownId = customer.getId() + 1000L;
+
+        // When
+        Map<Long, CustomerInsights> batch = service.customerInsightsByIds(asList(customer.getId(), unknownId));
+
+        // Then
+        assertEquals(asList(new Insight("You've spent £25 in cafes this month")), batch.get(customer.getId()).getInsights());
+        assertEquals(404, batch.get(unknownId).getStatusCode());
+        assertNull(batch.get(unknownId).getInsights());
+        assertEquals(1, columnStore.get(customer.getId()).size());
+    }
+
+    @DisplayName("columns expire at the start of the next month, when the window moves on")
+    @Test
+    public void expiresAtNextMonthTest() {
+        // Given
+        ZonedDateTime lastEveningOfJanuary = ZonedDateTime.of(2021, 1, 31, 23, 0, 0, 0, ZoneId.of("Europe/London"));
+
+        // When
+        Duration untilNextMonth = TransactionColumnStore.untilNextMonth(lastEveningOfJanuary);
+
+        // Then
+        assertEquals(Duration.ofHours(1), untilNextMonth);
+    }
+
+    private void save(Customer customer, long pence, LocalDate date, String category, String vendor) {
+        transactRepository.save(new Transactions(null, valueOf(pence, 2), date, "description", category, vendor, customer));
+    }
+}
@@ -0,0 +1,106 @@
+package com.nationwide.insights.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class VendorMeanHistoryTest {
+    private static final String VODAFONE = "Vodafone";
+    private static final String BILL = "bill";
+
+    @DisplayName("a month already in the baseline is evicted when a later bill moves the window on")
+    @Test
+    public void olderMonthEvictedWhenWindowMovesTest() {
+        // Given
+        VendorMeanHistory history = new VendorMeanHistory(VODAFONE, 1);
+
+        // When
+        add(history, LocalDate.of(2021, 1, 10), 1000L);
+        add(history, LocalDate.of(2021, 2, 10), 2000L);
+        add(history, LocalDate.of(2021, 3, 10), 3000L);
+
+        // Then
+        assertEquals(LocalDate.of(2021, 3, 10), history.getLatestDate());
+        assertEquals(3000L, history.getLatestAmount());
+        assertEquals(OptionalLong.of(2000L), history.baseline());
+    }
+
+    @DisplayName("bills added out of order give the baseline they would in date order")
+    @Test
+    public void outOfOrderAddsTest() {
+        // Given
+        VendorMeanHistory inOrder = new VendorMeanHistory(VODAFONE, 2);
+        VendorMeanHistory outOfOrder = new VendorMeanHistory(VODAFONE, 2);
+        VendorMeanHistory latestFirst = new VendorMeanHistory(VODAFONE, 1);
+
+        // When
+        add(inOrder, LocalDate.of(2021, 1, 10), 1000L);
+        add(inOrder, LocalDate.of(2021, 2, 10), 2000L);
+        add(inOrder, LocalDate.of(2021, 3, 10), 3000L);
+        add(outOfOrder, LocalDate.of(2021, 2, 10), 2000L);
+        add(outOfOrder, LocalDate.of(2021, 3, 10), 3000L);
+        add(outOfOrder, LocalDate.of(2021, 1, 10), 1000L);
+        add(latestFirst, LocalDate.of(2021, 3, 10), 3000L);
+        add(latestFirst, LocalDate.of(2021, 1, 10), 1000L);
+        add(latestFirst, LocalDate.of(2021, 2, 10), 2000L);
+
+        // Then
+        assertEquals(OptionalLong.of(1500L), inOrder.baseline());
+        assertEquals(OptionalLong.of(1500L), outOfOrder.baseline());
+        assertEquals(3000L, outOfOrder.getLatestAmount());
+        assertEquals(OptionalLong.of(2000L), latestFirst.baseline());
+        assertEquals(LocalDate.of(2021, 3, 10), latestFirst.getLatestDate());
+    }
+
+    @DisplayName("with no months every earlier bill counts, however far back")
+    @Test
+    public void noMonthsCountsEveryEarlierBillTest() {
+        // Given
+        VendorMeanHistory history = new VendorMeanHistory(VODAFONE, 0);
+
+        // When
+        add(history, LocalDate.of(2019, 1, 10), 1000L);
+        add(history, LocalDate.of(2021, 3, 10), 3000L);
+        add(history, LocalDate.of(2021, 2, 10), 2000L);
+
+        // Then
+        assertEquals(3000L, history.getLatestAmount());
+        assertEquals(OptionalLong.of(1500L), history.baseline());
+    }
+
+    @DisplayName("of two bills on the latest day the first stays the latest and the second joins the baseline")
+    @Test
+    public void sameDayTieTest() {
+        // Given
+        VendorMeanHistory history = new VendorMeanHistory(VODAFONE, 1);
+
+        // When
+        add(history, LocalDate.of(2021, 3, 10), 3000L);
+        add(history, LocalDate.of(2021, 3, 10), 5000L);
+
+        // Then
+        assertEquals(3000L, history.getLatestAmount());
+        assertEquals(OptionalLong.of(5000L), history.baseline());
+    }
+
+    @DisplayName("a single bill has no baseline")
+    @Test
+    public void singleBillHasNoBaselineTest() {
+        // Given
+        VendorMeanHistory history = new VendorMeanHistory(VODAFONE, 1);
+
+        // When
+        add(history, LocalDate.of(2021, 3, 10), 3000L);
+
+        // Then
+        assertEquals(OptionalLong.empty(), history.baseline());
+    }
+
+    private static void add(VendorMeanHistory history, LocalDate date, long pence) {
+        history.add((int) date.toEpochDay(), pence, 2, BILL);
+    }
+}